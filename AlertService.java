@@ -0,0 +1,164 @@
+import bc.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Spreads alerts from attackers that have found enemies to the attackers around them. Alerts raised during the
+ * round are deduplicated by region and delivered together after the attackers have run. The friendly attackers are
+ * put in a grid of buckets once per delivery, so each alert only looks at the units in the buckets within its radius.
+ */
+public class AlertService {
+
+    // Squared radius around an alert in which attackers are alerted
+    private static final int ALERT_RADIUS_SQUARED = 20;
+    private static final int ALERT_RADIUS = 4;
+
+    // Width and height in cells of the buckets of the spatial index, also used to deduplicate alerts
+    private static final int BUCKET_SIZE = 5;
+
+    private final Planet planet;
+    private final UnitRegistry units;
+    private final int bucketsWide;
+    private final int bucketsHigh;
+
+    // Alerts raised this round, at most one per bucket
+    private final BitSet alertedBuckets;
+    private final ArrayList<Integer> alertCells;
+    private final ArrayList<Integer> alertSourceIds;
+
+    // Spatial index of the friendly attackers. The ids of bucket b are bucketUnitIds[bucketStarts[b]..bucketStarts[b + 1]]
+    private final int[] bucketStarts;
+    private int[] bucketUnitIds;
+
+    public AlertService(Planet planet, UnitRegistry units) {
+        this.planet = planet;
+        this.units = units;
+        this.bucketsWide = (MapGrid.getWidth(planet) + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        this.bucketsHigh = (MapGrid.getHeight(planet) + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        this.alertedBuckets = new BitSet(bucketsWide * bucketsHigh);
+        this.alertCells = new ArrayList<>();
+        this.alertSourceIds = new ArrayList<>();
+        this.bucketStarts = new int[bucketsWide * bucketsHigh + 1];
+        this.bucketUnitIds = new int[0];
+    }
+
+    /**
+     * Method that will raise an alert at the location of an attacker that has found enemies. Only the first alert in
+     * each bucket is kept each round
+     * @param sourceId The id of the attacker raising the alert
+     * @param mapLocation The location of the attacker
+     */
+    public void raiseAlert(int sourceId, MapLocation mapLocation) {
+        int bucket = getBucket(mapLocation.getX(), mapLocation.getY());
+        if (alertedBuckets.get(bucket)) {
+            return;
+        }
+
+        alertedBuckets.set(bucket);
+        alertCells.add(MapGrid.toIndex(mapLocation));
+        alertSourceIds.add(sourceId);
+    }
+
+    /**
+     * Method that will give an ALERTED task to every attacker within the radius of an alert raised this round. Each
+     * attacker is only alerted once. Called once a round after the attackers have run
+     */
+    public void deliverAlerts() {
+        if (alertCells.isEmpty()) {
+            return;
+        }
+        buildIndex();
+
+        int width = MapGrid.getWidth(planet);
+        BitSet deliveredUnits = new BitSet();
+        for (int i = 0; i < alertCells.size(); i++) {
+            int alertX = alertCells.get(i) % width;
+            int alertY = alertCells.get(i) / width;
+            MapLocation alertLocation = MapGrid.toLocation(planet, alertCells.get(i));
+
+            int minBucketX = Math.max(0, (alertX - ALERT_RADIUS) / BUCKET_SIZE);
+            int maxBucketX = Math.min(bucketsWide - 1, (alertX + ALERT_RADIUS) / BUCKET_SIZE);
+            int minBucketY = Math.max(0, (alertY - ALERT_RADIUS) / BUCKET_SIZE);
+            int maxBucketY = Math.min(bucketsHigh - 1, (alertY + ALERT_RADIUS) / BUCKET_SIZE);
+            for (int bucketY = minBucketY; bucketY <= maxBucketY; bucketY++) {
+                for (int bucketX = minBucketX; bucketX <= maxBucketX; bucketX++) {
+                    int bucket = bucketX + bucketY * bucketsWide;
+                    for (int j = bucketStarts[bucket]; j < bucketStarts[bucket + 1]; j++) {
+                        int unitId = bucketUnitIds[j];
+                        int dx = RoundSnapshot.getX(unitId) - alertX;
+                        int dy = RoundSnapshot.getY(unitId) - alertY;
+                        if (unitId == alertSourceIds.get(i) || deliveredUnits.get(unitId) || dx * dx + dy * dy > ALERT_RADIUS_SQUARED) {
+                            continue;
+                        }
+
+                        deliveredUnits.set(unitId);
+                        alertUnit(units.get(UnitGroup.ATTACKER, unitId), alertLocation);
+                    }
+                }
+            }
+        }
+
+        alertedBuckets.clear();
+        alertCells.clear();
+        alertSourceIds.clear();
+    }
+
+    /**
+     * Helper method that will send an attacker to an alert. A unit that is not on a global task stops what it is
+     * doing, and a unit that is already answering an alert is left alone
+     * @param unit The attacker being alerted
+     * @param alertLocation The location of the alert
+     */
+    private void alertUnit(UnitInstance unit, MapLocation alertLocation) {
+        if (unit.hasTasks()) {
+            if (unit.getCurrentTask().getCommand() == Command.ALERTED) {
+                return;
+            }
+            if (unit.getCurrentTask().getTaskId() == -1) {
+                unit.pollCurrentTask();
+            }
+        }
+
+        // System.out.println("Attacker: " + unit.getId() + " alerted to " + Player.locationToString(alertLocation));
+        unit.addTaskToQueue(new RobotTask(-1, Command.ALERTED, alertLocation));
+    }
+
+    /**
+     * Helper method that will put the attackers on the map, except healers, into the buckets of the spatial index
+     * with a counting sort
+     */
+    private void buildIndex() {
+        Arrays.fill(bucketStarts, 0);
+        int unitCount = 0;
+        for (int unitId = units.nextId(UnitGroup.ATTACKER, 0); unitId != -1; unitId = units.nextId(UnitGroup.ATTACKER, unitId + 1)) {
+            if (isIndexed(unitId)) {
+                bucketStarts[getBucket(RoundSnapshot.getX(unitId), RoundSnapshot.getY(unitId)) + 1]++;
+                unitCount++;
+            }
+        }
+
+        for (int bucket = 0; bucket < bucketStarts.length - 1; bucket++) {
+            bucketStarts[bucket + 1] += bucketStarts[bucket];
+        }
+
+        if (bucketUnitIds.length < unitCount) {
+            bucketUnitIds = new int[unitCount * 2];
+        }
+        int[] nextSlot = Arrays.copyOf(bucketStarts, bucketStarts.length);
+        for (int unitId = units.nextId(UnitGroup.ATTACKER, 0); unitId != -1; unitId = units.nextId(UnitGroup.ATTACKER, unitId + 1)) {
+            if (isIndexed(unitId)) {
+                bucketUnitIds[nextSlot[getBucket(RoundSnapshot.getX(unitId), RoundSnapshot.getY(unitId))]++] = unitId;
+            }
+        }
+    }
+
+    private boolean isIndexed(int unitId) {
+        return RoundSnapshot.isOnMap(unitId) && RoundSnapshot.getUnitType(unitId) != UnitType.Healer;
+    }
+
+    private int getBucket(int x, int y) {
+        return x / BUCKET_SIZE + (y / BUCKET_SIZE) * bucketsWide;
+    }
+}
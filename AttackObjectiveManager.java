@@ -0,0 +1,226 @@
+import bc.*;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * Keeps the attack objectives of a planet and decides where its attackers go. The map is split into square regions
+ * and each region holds at most one objective, so many sightings of the same group of enemies become one objective.
+ * Attackers are grouped into armies by the region of the terrain they can walk in, every army is given the best
+ * objective it can reach, and a unit is only sent a new wander task when the objective of its army changes.
+ */
+public class AttackObjectiveManager {
+
+    // Width and height in cells of the regions objectives are deduplicated by
+    private static final int REGION_SIZE = 5;
+
+    public static final int SIGHTING_SCORE = 40;
+    public static final int STALE_TARGET_SCORE = 30;
+    public static final int STARTING_LOCATION_SCORE = 20;
+
+    // Rounds since an objective was last reported that lower its score by one
+    private static final int AGE_DIVISOR = 10;
+
+    private final Planet planet;
+    private final UnitRegistry units;
+    private final ChokeAnalysis chokeAnalysis;
+    private final int regionsWide;
+
+    // Objectives indexed by region
+    private final BitSet activeRegions;
+    private final int[] objectiveCells;
+    private final int[] objectiveScores;
+    private final int[] objectiveRounds;
+
+    // Cell of the objective each attacker was last sent to, or -1 if it has none
+    private int[] assignedCells;
+
+    // Best objective region of each walkable region of the terrain, as of the last update
+    private HashMap<Integer, Integer> armyObjectives;
+
+    public AttackObjectiveManager(Planet planet, UnitRegistry units, ChokeAnalysis chokeAnalysis) {
+        this.planet = planet;
+        this.units = units;
+        this.chokeAnalysis = chokeAnalysis;
+        this.regionsWide = (MapGrid.getWidth(planet) + REGION_SIZE - 1) / REGION_SIZE;
+
+        int regionCount = regionsWide * ((MapGrid.getHeight(planet) + REGION_SIZE - 1) / REGION_SIZE);
+        this.activeRegions = new BitSet(regionCount);
+        this.objectiveCells = new int[regionCount];
+        this.objectiveScores = new int[regionCount];
+        this.objectiveRounds = new int[regionCount];
+        this.assignedCells = new int[0];
+        this.armyObjectives = new HashMap<>();
+    }
+
+    /**
+     * Method that will add an objective at the location of an enemy, or refresh the objective of its region. The
+     * region keeps the highest score, and keeps the location it was first reported at while it is active so that the
+     * wander tasks, squads and flow fields heading to it stay valid as the enemies in the region move around
+     * @param mapLocation The location of the enemy
+     * @param score How much attacking the location is worth
+     */
+    public void reportEnemy(MapLocation mapLocation, int score) {
+        int cell = MapGrid.toIndex(mapLocation);
+        int region = getRegion(cell);
+        if (!activeRegions.get(region)) {
+            activeRegions.set(region);
+            objectiveCells[region] = cell;
+            objectiveScores[region] = score;
+        } else if (getEffectiveScore(region) < score) {
+            objectiveScores[region] = score;
+        }
+        objectiveRounds[region] = (int)(Player.gc.round());
+    }
+
+    /**
+     * Method that will remove the objective of the region of a location once it has been checked and no enemies are
+     * left there, or once it turned out to be unreachable
+     * @param mapLocation The location of the objective
+     */
+    public void clearObjective(MapLocation mapLocation) {
+        activeRegions.clear(getRegion(MapGrid.toIndex(mapLocation)));
+    }
+
+    /**
+     * Gets the location of the objective an attacker has been sent to
+     * @param unitId The id of the attacker
+     * @return The location of the objective or null if the unit has no objective
+     */
+    public MapLocation getObjective(int unitId) {
+        if (unitId >= assignedCells.length || assignedCells[unitId] == -1 || !isActiveObjective(assignedCells[unitId])) {
+            return null;
+        }
+        return MapGrid.toLocation(planet, assignedCells[unitId]);
+    }
+
+    /**
+     * Gets the objective of the army that a unit standing on the given cell would join
+     * @param cell The packed index of the cell
+     * @return The location of the objective or null if the army has no objective
+     */
+    public MapLocation getArmyObjective(int cell) {
+        Integer region = armyObjectives.get(chokeAnalysis.getComponent(cell));
+        if (region == null || !activeRegions.get(region)) {
+            return null;
+        }
+        return MapGrid.toLocation(planet, objectiveCells[region]);
+    }
+
+    /**
+     * Method that will add the best remembered enemy as an objective, give every army the best objective it can
+     * reach, and send the attackers whose objective changed to it. Called once a round before the units run
+     */
+    public void update() {
+        int staleTargetId = EnemyMemory.getMostValuableStaleTarget();
+        if (staleTargetId != -1) {
+            reportEnemy(EnemyMemory.getLastSeenLocation(staleTargetId), STALE_TARGET_SCORE);
+        }
+
+        armyObjectives = new HashMap<>();
+        for (int region = activeRegions.nextSetBit(0); region != -1; region = activeRegions.nextSetBit(region + 1)) {
+            int component = getReachableComponent(objectiveCells[region]);
+            if (component == -1) {
+                continue;
+            }
+
+            Integer bestRegion = armyObjectives.get(component);
+            if (bestRegion == null || getEffectiveScore(region) > getEffectiveScore(bestRegion)) {
+                armyObjectives.put(component, region);
+            }
+        }
+
+        for (int unitId = units.nextId(UnitGroup.ATTACKER, 0); unitId != -1; unitId = units.nextId(UnitGroup.ATTACKER, unitId + 1)) {
+            if (!RoundSnapshot.isOnMap(unitId) || RoundSnapshot.getUnitType(unitId) == UnitType.Healer) {
+                continue;
+            }
+            ensureCapacity(unitId);
+
+            int component = chokeAnalysis.getComponent(MapGrid.toIndex(planet, RoundSnapshot.getX(unitId), RoundSnapshot.getY(unitId)));
+            Integer objectiveRegion = armyObjectives.get(component);
+            int cell = objectiveRegion == null ? -1 : objectiveCells[objectiveRegion];
+            if (cell != assignedCells[unitId]) {
+                assignedCells[unitId] = cell;
+                notifyUnit(units.get(UnitGroup.ATTACKER, unitId));
+            }
+        }
+    }
+
+    /**
+     * Helper method that will replace the wander task of an attacker with one to its new objective. Units that are
+     * on any other task pick up their objective the next time they wander
+     * @param unit The attacker whose objective changed
+     */
+    private void notifyUnit(UnitInstance unit) {
+        if (unit.hasTasks() && unit.getCurrentTask().getCommand() == Command.WANDER && unit.getCurrentTask().getTaskId() == -1) {
+            unit.pollCurrentTask();
+
+            MapLocation objectiveLocation = getObjective(unit.getId());
+            if (objectiveLocation != null) {
+                // System.out.println("Attacker: " + unit.getId() + " sent to objective " + Player.locationToString(objectiveLocation));
+                unit.addTaskToQueue(new RobotTask(-1, Command.WANDER, objectiveLocation));
+            }
+        }
+    }
+
+    /**
+     * Helper method that will get the walkable region next to an objective. The objective is often an enemy
+     * structure, so its own cell may not be walkable
+     * @param cell The packed index of the objective
+     * @return The id of the walkable region or -1 if the objective cannot be reached
+     */
+    private int getReachableComponent(int cell) {
+        for (int direction = 8; direction >= 0; direction--) {
+            int neighbour = MapGrid.getNeighbour(planet, cell, direction);
+            if (neighbour != -1 && chokeAnalysis.getComponent(neighbour) != -1) {
+                return chokeAnalysis.getComponent(neighbour);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Helper method that will get the score of an objective lowered by how long ago it was reported
+     * @param region The region of the objective
+     * @return The score of the objective this round
+     */
+    private int getEffectiveScore(int region) {
+        return objectiveScores[region] - ((int)(Player.gc.round()) - objectiveRounds[region]) / AGE_DIVISOR;
+    }
+
+    /**
+     * Helper method that will check if a cell is still the location of an active objective. An objective that was
+     * cleared and reported again in the same region may have moved to another cell
+     * @param cell The packed index of the cell
+     * @return If the cell is the location of the objective of its region
+     */
+    private boolean isActiveObjective(int cell) {
+        int region = getRegion(cell);
+        return activeRegions.get(region) && objectiveCells[region] == cell;
+    }
+
+    /**
+     * Helper method that will get the region a cell belongs to
+     * @param cell The packed index of the cell
+     * @return The region id
+     */
+    private int getRegion(int cell) {
+        int width = MapGrid.getWidth(planet);
+        return (cell % width) / REGION_SIZE + ((cell / width) / REGION_SIZE) * regionsWide;
+    }
+
+    /**
+     * Helper method that will grow the id indexed assignments so that they can hold the given id
+     * @param unitId The id that must fit in the array
+     */
+    private void ensureCapacity(int unitId) {
+        if (unitId < assignedCells.length) {
+            return;
+        }
+
+        int oldLength = assignedCells.length;
+        assignedCells = Arrays.copyOf(assignedCells, Math.max(unitId + 1, oldLength * 2));
+        Arrays.fill(assignedCells, oldLength, assignedCells.length, -1);
+    }
+}
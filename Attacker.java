@@ -9,13 +9,13 @@ public abstract class Attacker extends Robot {
 
     private int focusedTargetId;
 
-    public Attacker(int id) {
-        super(id);
+    public Attacker(int id, UnitType unitType) {
+        super(id, unitType);
         focusedTargetId = -1;
     }
 
     public int getAttackRange() {
-        return (int)(Player.gc.unit(this.getId()).attackRange());
+        return UnitStats.getAttackRange(this.getUnitType(), this.getId());
     }
 
     public int getFocusedTargetId() {
@@ -32,7 +32,6 @@ public abstract class Attacker extends Robot {
     public void runAttacker() {
 
         updateTargets();
-        updateLocationToWander();
 
         if (this.getEmergencyTask() != null) {
             executeEmergencyTask();
@@ -111,74 +110,21 @@ public abstract class Attacker extends Robot {
     }
 
     /**
-     * Method that will allow the current robot to broadcast the location of an enemy to nearby units. The units
-     * that receive the broadcast will move to towards the location and set their emergency task to if they see the
-     * enemy.
+     * Method that will allow the current robot to broadcast the location of an enemy to nearby units. The alert
+     * service delivers the alerts after every attacker has run, and the units that receive it will move towards the
+     * location and set their emergency task if they see the enemy.
      */
     private void broadcastFocusedTarget() {
-        VecUnit nearbyUnits = Player.gc.senseNearbyUnitsByTeam(this.getLocation(), 20, Player.team);
-
-        for (int i = 0; i < nearbyUnits.size(); i++) {
-
-            // Checks if the nearby unit is not a worker, healer, or itself.
-            Unit nearbyUnit = nearbyUnits.get(i);
-
-            if (nearbyUnit.team() == Player.team && nearbyUnit.unitType() != UnitType.Worker && nearbyUnit.unitType() != UnitType.Healer &&
-                    nearbyUnit.unitType() != UnitType.Factory && nearbyUnit.unitType() != UnitType.Rocket && nearbyUnit.id() != this.getId()) {
-
-                // If the current nearby unit's task is not already ALERTED, and if the task isn't part of a global task, poll it
-                UnitInstance friendlyAttacker = Earth.earthAttackerMap.get(nearbyUnit.id());
-                if (friendlyAttacker.hasTasks() && friendlyAttacker.getCurrentTask().getCommand() != Command.ALERTED &&
-                        friendlyAttacker.getCurrentTask().getTaskId() == -1) {
-
-                    friendlyAttacker.pollCurrentTask();
-                }
-
-                // System.out.println("Attacker: " + this.getId() + " has alerted " + friendlyAttacker.getId());
-                friendlyAttacker.addTaskToQueue(new RobotTask(-1, Command.ALERTED, this.getLocation()));
-            }
-        }
-
-        // System.out.println("Attacker: " + this.getId() + " Finished trying to alert other units");
+        Player.getController().getAlertService().raiseAlert(this.getId(), this.getLocation());
     }
 
     /**
-     * Method that will check if the wander to attack location has been updated. If the robots current move to
-     * attack location is different from the one at the top of the stack, change the location.
-     */
-    public void updateLocationToWander() {
-        if (this.hasTasks() && !Earth.earthMainAttackStack.empty() && this.getCurrentTask().getCommand() == Command.WANDER) {
-            MapLocation currentCommandLocation = this.getCurrentTask().getCommandLocation();
-            MapLocation topGlobalAttackLocation = Earth.earthMainAttackStack.peek();
-
-            if (currentCommandLocation == null || !currentCommandLocation.equals(topGlobalAttackLocation)) {
-                // System.out.println("Attacker: " + this.getId() + " setting task location to new attack location");
-                this.pollCurrentTask();
-                this.addTaskToQueue(new RobotTask(-1, Command.WANDER, topGlobalAttackLocation));
-            }
-        }
-    }
-
-    /**
-     * Method that will add a unit to the global attack location map if the one on top is not within the units sight radius
-     * This means an enemy has appeared outside of the global attack location and we want to add another location for units to go to
+     * Method that will report the location of the focused target as an attack objective. Sightings near an existing
+     * objective are merged into it by the objective manager
      */
     private void addGlobalAttackLocation() {
-
-        // System.out.println("Attacker: " + this.getId() + " checking if the location is in the global map!");
-
-        // Checks if the global attack map is empty. If it is it will add the focused target location to the map.
         MapLocation enemyLocation = Player.gc.unit(this.getFocusedTargetId()).location().mapLocation();
-        if (Earth.earthMainAttackStack.empty()) {
-            Earth.earthMainAttackStack.push(enemyLocation);
-
-        } else {
-            int distanceToAttackLocation = (int)(this.getLocation().distanceSquaredTo(Earth.earthMainAttackStack.peek()));
-            if (distanceToAttackLocation > this.getVisionRange()) {
-                Earth.earthMainAttackStack.add(enemyLocation);
-            }
-        }
-
+        Player.getController().getObjectiveManager().reportEnemy(enemyLocation, AttackObjectiveManager.SIGHTING_SCORE);
     }
 
     /**
@@ -214,17 +160,14 @@ public abstract class Attacker extends Robot {
     }
 
     /**
-     * Helper method that will remove the global attack location if it has left combat and it can see the latest
-     * attack location.
+     * Helper method that will clear the objective of this unit if it has left combat and is close enough to see
+     * that no enemies are left there
      */
     public void checkGlobalAttackLocation() {
-        if (!Earth.earthMainAttackStack.empty()) {
-
-            MapLocation location = Earth.earthMainAttackStack.peek();
-            if (this.getLocation().distanceSquaredTo(location) < this.getAttackRange()) {
-                // System.out.println("Global attack location: " + Player.locationToString(location) + " has been checked!");
-                Earth.earthMainAttackStack.pop();
-            }
+        MapLocation location = Player.getController().getObjectiveManager().getObjective(this.getId());
+        if (location != null && this.getLocation().distanceSquaredTo(location) < this.getAttackRange()) {
+            // System.out.println("Global attack location: " + Player.locationToString(location) + " has been checked!");
+            Player.getController().getObjectiveManager().clearObjective(location);
         }
     }
 
@@ -250,10 +193,11 @@ public abstract class Attacker extends Robot {
 
         if (this.hasTasks() && executeTask(this.getCurrentTask())) {
             // System.out.println("Attacker: " + this.getId() + " has finished task: " + this.getCurrentTask().getCommand());
-            if (this.getCurrentTask().getCommand() == Command.WANDER && Earth.earthMainAttackStack.size() > 0 &&
-                    this.getCurrentTask().getCommandLocation().equals(Earth.earthMainAttackStack.peek())) {
-                // System.out.println("attack target unreachable" + Earth.earthMainAttackStack.peek());
-                Earth.earthMainAttackStack.pop();
+            MapLocation objectiveLocation = Player.getController().getObjectiveManager().getObjective(this.getId());
+            if (this.getCurrentTask().getCommand() == Command.WANDER && objectiveLocation != null &&
+                    objectiveLocation.equals(this.getCurrentTask().getCommandLocation())) {
+                // System.out.println("attack target unreachable" + Player.locationToString(objectiveLocation));
+                Player.getController().getObjectiveManager().clearObjective(objectiveLocation);
             }
             this.pollCurrentTask();
 
@@ -277,14 +221,20 @@ public abstract class Attacker extends Robot {
             case MOVE:
                 return this.pathManager(commandLocation);
             case WANDER:
+
+                // Members of a squad follow the squad's shared path to the objective instead of searching for their own
+                Squad squad = Player.getController().getSquadManager().getSquad(this.getId());
+                if (squad != null && robotTask.getTaskId() == -1 && commandLocation != null &&
+                        MapGrid.toIndex(commandLocation) == squad.getObjectiveIndex()) {
+                    return squad.moveMember(this.getId());
+                }
                 return this.pathManager(commandLocation);
             case ALERTED:
                 return this.pathManager(commandLocation);
             case IN_COMBAT:
                 return runBattleAction();
             case STALL:
-                this.requestUnitToLoad(commandLocation);
-                return false;
+                return waitForLoading(robotTask);
             default:
                 // System.out.println("Critical error occurred in attacker: " + this.getId());
                 return true;
@@ -292,12 +242,12 @@ public abstract class Attacker extends Robot {
     }
 
     /**
-     * Method that will set the current task to wander to the global attack location. If there are no mare global
-     * locations in the queue, it will wander randomly
+     * Method that will set the current task to wander to the objective given to this unit by the objective manager.
+     * If the unit has no objective, it will wander randomly
      */
     public void wanderToGlobalAttack() {
-        if (!Earth.earthMainAttackStack.isEmpty()) {
-            MapLocation attackLocation = Earth.earthMainAttackStack.peek();
+        MapLocation attackLocation = Player.getController().getObjectiveManager().getObjective(this.getId());
+        if (attackLocation != null) {
 
             // System.out.println("Attacker: " + this.getId() + " moving to global attack location: " + Player.locationToString(attackLocation));
             this.addTaskToQueue(new RobotTask(-1, Command.WANDER, attackLocation));
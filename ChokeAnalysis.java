@@ -0,0 +1,263 @@
+import bc.*;
+
+import java.util.Arrays;
+
+/**
+ * Connectivity analysis of the passable cells of a planet, treating structures as walls. Uses Tarjan's algorithm
+ * to find the articulation points: cells that would split their region in two if they were blocked. When a
+ * structure is added or removed only the regions touching it are analysed again, lazily on the next query, so
+ * checking a cell is O(1). The region ids also answer if two cells can reach each other in O(1).
+ */
+public class ChokeAnalysis {
+
+    private final Planet planet;
+    private final int cellCount;
+
+    private final boolean[] isBlocked;
+    private final boolean[] isArticulationPoint;
+    private final int[] components;
+    private int[] componentSizes;
+    private int nextComponentId;
+
+    // Tarjan search state, reused between passes
+    private final int[] discovery;
+    private final int[] low;
+    private final int[] parent;
+    private final int[] nextDirection;
+    private final int[] stack;
+    private final int[] visitedPass;
+    private int pass;
+
+    // Regions that have changed since the last analysis
+    private int[] dirtyComponentPass;
+    private final int[] freedCells;
+    private int freedCellCount;
+    private boolean isDirty;
+
+    public ChokeAnalysis(Planet planet) {
+        this.planet = planet;
+        this.cellCount = MapGrid.getCellCount(planet);
+        this.isBlocked = new boolean[cellCount];
+        this.isArticulationPoint = new boolean[cellCount];
+        this.components = new int[cellCount];
+        this.componentSizes = new int[cellCount];
+        this.nextComponentId = 0;
+
+        this.discovery = new int[cellCount];
+        this.low = new int[cellCount];
+        this.parent = new int[cellCount];
+        this.nextDirection = new int[cellCount];
+        this.stack = new int[cellCount];
+        this.visitedPass = new int[cellCount];
+        this.pass = 0;
+
+        this.dirtyComponentPass = new int[cellCount];
+        this.freedCells = new int[cellCount];
+        this.freedCellCount = 0;
+        this.isDirty = false;
+
+        Arrays.fill(components, -1);
+        for (int index = 0; index < cellCount; index++) {
+            isBlocked[index] = !MapGrid.isPassable(planet, index);
+        }
+
+        // Analyse the whole map once
+        pass++;
+        for (int index = 0; index < cellCount; index++) {
+            if (!isBlocked[index] && visitedPass[index] != pass) {
+                analyseRegion(index);
+            }
+        }
+    }
+
+    /**
+     * Checks if blocking the cell would split the region it is in
+     * @param index The packed index of the cell
+     * @return If the cell is an articulation point
+     */
+    public boolean isArticulationPoint(int index) {
+        update();
+        return isArticulationPoint[index];
+    }
+
+    /**
+     * Gets the id of the region a cell is in
+     * @param index The packed index of the cell
+     * @return The region id or -1 if the cell is blocked
+     */
+    public int getComponent(int index) {
+        update();
+        return components[index];
+    }
+
+    /**
+     * Gets the number of cells in a region
+     * @param componentId The id of the region
+     * @return The number of cells in the region
+     */
+    public int getComponentSize(int componentId) {
+        update();
+        return componentId < 0 ? 0 : componentSizes[componentId];
+    }
+
+    /**
+     * Checks if a unit at the start can walk to the cell or to a cell adjacent to it, ignoring units
+     * @param start The packed index of the start cell
+     * @param destination The packed index of the destination cell
+     * @return If the destination can be reached
+     */
+    public boolean canReach(int start, int destination) {
+        int startComponent = getComponent(start);
+        if (startComponent == -1) {
+            return false;
+        }
+
+        for (int direction = 0; direction < 8 + 1; direction++) {
+            int neighbour = MapGrid.getNeighbour(planet, destination, direction);
+            if (neighbour != -1 && components[neighbour] == startComponent) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method that will mark a cell as blocked by a structure. Its region will be analysed again on the next query
+     * @param index The packed index of the cell
+     */
+    public void addStructure(int index) {
+        if (isBlocked[index]) {
+            return;
+        }
+
+        markComponentDirty(components[index]);
+        isBlocked[index] = true;
+        isArticulationPoint[index] = false;
+        componentSizes[components[index]]--;
+        components[index] = -1;
+    }
+
+    /**
+     * Method that will mark a cell as open again after a structure is gone. It and the regions around it will be
+     * analysed again on the next query
+     * @param index The packed index of the cell
+     */
+    public void removeStructure(int index) {
+        if (!isBlocked[index] || !MapGrid.isPassable(planet, index)) {
+            return;
+        }
+
+        isBlocked[index] = false;
+        freedCells[freedCellCount++] = index;
+        for (int direction = 0; direction < 8; direction++) {
+            int neighbour = MapGrid.getNeighbour(planet, index, direction);
+            if (neighbour != -1 && !isBlocked[neighbour]) {
+                markComponentDirty(components[neighbour]);
+            }
+        }
+        isDirty = true;
+    }
+
+    private void markComponentDirty(int componentId) {
+        if (componentId >= 0) {
+            dirtyComponentPass[componentId] = pass + 1;
+            isDirty = true;
+        }
+    }
+
+    /**
+     * Helper method that will analyse the regions that changed since the last query. Every open cell in a changed
+     * region, and every freed cell, is searched again and given a new region id
+     */
+    private void update() {
+        if (!isDirty) {
+            return;
+        }
+
+        pass++;
+        for (int i = 0; i < freedCellCount; i++) {
+            if (!isBlocked[freedCells[i]] && visitedPass[freedCells[i]] != pass) {
+                analyseRegion(freedCells[i]);
+            }
+        }
+
+        for (int index = 0; index < cellCount; index++) {
+            int componentId = components[index];
+            if (!isBlocked[index] && visitedPass[index] != pass && componentId >= 0 &&
+                    dirtyComponentPass[componentId] == pass) {
+                analyseRegion(index);
+            }
+        }
+
+        freedCellCount = 0;
+        isDirty = false;
+    }
+
+    /**
+     * Helper method that will run an iterative Tarjan depth first search from the root. Gives every cell reached a
+     * new region id and marks the articulation points in the region
+     * @param root The packed index of the cell to start from
+     */
+    private void analyseRegion(int root) {
+        // Every analysis takes a new region id, so the arrays indexed by region id grow together
+        int componentId = nextComponentId++;
+        if (componentId >= componentSizes.length) {
+            componentSizes = Arrays.copyOf(componentSizes, componentSizes.length * 2);
+            dirtyComponentPass = Arrays.copyOf(dirtyComponentPass, componentSizes.length);
+        }
+
+        int timer = 0;
+        int rootChildren = 0;
+        int top = 0;
+
+        stack[top++] = root;
+        visit(root, -1, ++timer, componentId);
+
+        while (top > 0) {
+            int current = stack[top - 1];
+
+            if (nextDirection[current] < 8) {
+                int neighbour = MapGrid.getNeighbour(planet, current, nextDirection[current]++);
+                if (neighbour == -1 || isBlocked[neighbour]) {
+                    continue;
+                }
+
+                if (visitedPass[neighbour] != pass) {
+                    visit(neighbour, current, ++timer, componentId);
+                    stack[top++] = neighbour;
+                    if (current == root) {
+                        rootChildren++;
+                    }
+                } else if (neighbour != parent[current]) {
+                    low[current] = Math.min(low[current], discovery[neighbour]);
+                }
+
+            } else {
+                top--;
+                int parentIndex = parent[current];
+                if (parentIndex != -1) {
+                    low[parentIndex] = Math.min(low[parentIndex], low[current]);
+                    if (parentIndex != root && low[current] >= discovery[parentIndex]) {
+                        isArticulationPoint[parentIndex] = true;
+                    }
+                }
+            }
+        }
+
+        isArticulationPoint[root] = rootChildren > 1;
+    }
+
+    /**
+     * Helper method that will initialise the search state of a cell when it is first reached
+     */
+    private void visit(int index, int parentIndex, int time, int componentId) {
+        visitedPass[index] = pass;
+        discovery[index] = time;
+        low[index] = time;
+        parent[index] = parentIndex;
+        nextDirection[index] = 0;
+        isArticulationPoint[index] = false;
+        components[index] = componentId;
+        componentSizes[componentId]++;
+    }
+}
@@ -0,0 +1,250 @@
+import bc.*;
+
+/**
+ * Simple model of the karbonite economy on Earth. At the start of the game it measures how much karbonite the
+ * starting workers can reach. During the game it simulates the income of a range of worker counts over a short
+ * horizon to decide how many workers to replicate, and when factories can be afforded.
+ */
+public class EconomyModel {
+
+    public static final int FACTORY_COST = 200;
+    public static final int REPLICATE_COST = 60;
+
+    // Teams get this much karbonite each round, less one for every KARBONITE_DECREASE_DIVISOR karbonite in stock
+    private static final int BASE_PASSIVE_INCOME = 10;
+    private static final int KARBONITE_DECREASE_DIVISOR = 40;
+
+    private static final int SIMULATION_HORIZON = 50;
+    private static final int UPDATE_INTERVAL = 10;
+    private static final int MAX_EXTRA_WORKERS = 8;
+    private static final int MAX_WORKERS_PER_DEPOSIT = 3;
+
+    // A factory producing a 40 karbonite unit every 5 rounds spends about this much per round
+    private static final int FACTORY_SPEND_PER_ROUND = 8;
+    private static final int MAX_FACTORIES = 4;
+
+    // Rounds it takes workers to walk to a new structure site
+    public static final int FACTORY_LEAD_ROUNDS = 10;
+
+    private static int reachableKarbonite = 0;
+    private static int reachableDeposits = 0;
+    private static int reachableArea = 1;
+    private static int karbonitePerWorker = 0;
+
+    private static int harvestAmount = 3;
+    private static int targetWorkerCount = 4;
+    private static int projectedIncome = 0;
+    private static int firstAffordableRound = 1;
+    private static long lastUpdateRound = -UPDATE_INTERVAL;
+
+    /**
+     * Method that will measure the karbonite reachable from the starting workers with a breadth first search over
+     * the passable terrain of Earth, then run the first simulation
+     */
+    public static void initialize() {
+        Planet planet = Planet.Earth;
+        int cellCount = MapGrid.getCellCount(planet);
+        boolean[] visited = new boolean[cellCount];
+        int[] frontier = new int[cellCount];
+        int head = 0;
+        int tail = 0;
+
+        VecUnit startingUnits = Player.gc.myUnits();
+        int workerCount = 0;
+        for (int i = 0; i < startingUnits.size(); i++) {
+            Unit unit = startingUnits.get(i);
+            if (unit.unitType() == UnitType.Worker && unit.location().isOnPlanet(planet)) {
+                int index = MapGrid.toIndex(unit.location().mapLocation());
+                if (!visited[index]) {
+                    visited[index] = true;
+                    frontier[tail++] = index;
+                }
+                harvestAmount = UnitStats.getHarvestAmount(unit.id());
+                workerCount++;
+            }
+        }
+
+        while (head < tail) {
+            int currentIndex = frontier[head++];
+            int karbonite = Earth.earthController.getKarboniteMap().getKarbonite(currentIndex);
+            if (karbonite > 0) {
+                reachableKarbonite += karbonite;
+                reachableDeposits++;
+            }
+
+            for (int direction = 0; direction < 8; direction++) {
+                int neighbour = MapGrid.getNeighbour(planet, currentIndex, direction);
+                if (neighbour != -1 && !visited[neighbour] && MapGrid.isPassable(planet, neighbour)) {
+                    visited[neighbour] = true;
+                    frontier[tail++] = neighbour;
+                }
+            }
+        }
+
+        reachableArea = Math.max(1, tail);
+        karbonitePerWorker = reachableKarbonite / Math.max(1, workerCount);
+        evaluate(workerCount, (int)(Player.gc.karbonite()), reachableKarbonite, reachableDeposits);
+    }
+
+    /**
+     * Method that will re-run the simulation every few rounds with the current state of the game
+     */
+    public static void update() {
+        long round = Player.gc.round();
+        if (round - lastUpdateRound < UPDATE_INTERVAL) {
+            return;
+        }
+        lastUpdateRound = round;
+
+        int firstWorkerId = Earth.earthController.getUnits().nextId(UnitGroup.WORKER, 0);
+        if (firstWorkerId != -1) {
+            harvestAmount = UnitStats.getHarvestAmount(firstWorkerId);
+        }
+
+        KarboniteMap karboniteMap = Earth.earthController.getKarboniteMap();
+        int workerCount = Earth.earthController.getUnits().size(UnitGroup.WORKER) + Earth.earthController.getUnits().getStagedCount(UnitGroup.WORKER);
+        evaluate(workerCount, (int)(Player.gc.karbonite()),
+                Math.min(reachableKarbonite, karboniteMap.getTotalKarbonite()),
+                Math.min(reachableDeposits, karboniteMap.getDepositCount()));
+    }
+
+    public static int getKarbonitePerWorker() {
+        return karbonitePerWorker;
+    }
+
+    public static int getTargetWorkerCount() {
+        return targetWorkerCount;
+    }
+
+    public static int getProjectedIncome() {
+        return projectedIncome;
+    }
+
+    public static int getFirstAffordableRound() {
+        return firstAffordableRound;
+    }
+
+    /**
+     * Gets the number of factories the projected income can keep producing units
+     * @return The number of factories to build
+     */
+    public static int getFactoryTarget() {
+        int factories = (projectedIncome + FACTORY_SPEND_PER_ROUND - 1) / FACTORY_SPEND_PER_ROUND;
+        return Math.max(1, Math.min(MAX_FACTORIES, factories));
+    }
+
+    /**
+     * Checks if the given amount of karbonite will be available within the given number of rounds
+     * @param cost The amount of karbonite needed
+     * @param rounds The number of rounds of income to count
+     * @return If the cost can be paid in time
+     */
+    public static boolean canAffordWithin(int cost, int rounds) {
+        return Player.gc.karbonite() + (long)projectedIncome * rounds >= cost;
+    }
+
+    /**
+     * Checks if another worker should be replicated this round
+     * @return If the worker count is below the target and there is enough karbonite
+     */
+    public static boolean shouldReplicate() {
+        int workerCount = Earth.earthController.getUnits().size(UnitGroup.WORKER) + Earth.earthController.getUnits().getStagedCount(UnitGroup.WORKER);
+        return workerCount < targetWorkerCount && Player.gc.karbonite() >= REPLICATE_COST;
+    }
+
+    /**
+     * Helper method that will simulate every worker count from the current one up to MAX_EXTRA_WORKERS more and
+     * keep the one that ends the horizon with the most karbonite
+     * @param workerCount The current number of workers
+     * @param karbonite The current karbonite
+     * @param remainingKarbonite The karbonite left in reachable deposits
+     * @param deposits The number of reachable deposits
+     */
+    private static void evaluate(int workerCount, int karbonite, int remainingKarbonite, int deposits) {
+        int[] affordableRound = new int[1];
+
+        int bestWorkers = workerCount;
+        int bestKarbonite = Integer.MIN_VALUE;
+        int bestAffordableRound = SIMULATION_HORIZON;
+        for (int workers = workerCount; workers <= workerCount + MAX_EXTRA_WORKERS; workers++) {
+            int finalKarbonite = simulate(workerCount, workers, karbonite, remainingKarbonite, deposits, affordableRound);
+            if (finalKarbonite > bestKarbonite) {
+                bestKarbonite = finalKarbonite;
+                bestWorkers = workers;
+                bestAffordableRound = affordableRound[0];
+            }
+        }
+
+        targetWorkerCount = Math.max(1, bestWorkers);
+        projectedIncome = Math.max(0, (bestKarbonite - karbonite) / SIMULATION_HORIZON);
+        firstAffordableRound = (int)(Player.gc.round()) + bestAffordableRound;
+    }
+
+    /**
+     * Helper method that will simulate the karbonite of the team over the horizon. Workers are replicated up to the
+     * target as karbonite allows, and each new worker needs some rounds to walk to a deposit. Miners lose time
+     * walking between deposits, which grows as the deposits run out.
+     * @param currentWorkers The number of workers at the start
+     * @param targetWorkers The number of workers to replicate up to
+     * @param karbonite The karbonite at the start
+     * @param remainingKarbonite The karbonite left in reachable deposits
+     * @param deposits The number of reachable deposits
+     * @param affordableRound Output of the first round offset the karbonite reaches the cost of a factory
+     * @return The karbonite at the end of the horizon
+     */
+    private static int simulate(int currentWorkers, int targetWorkers, int karbonite, int remainingKarbonite,
+                                int deposits, int[] affordableRound) {
+
+        int[] arrivingWorkers = new int[SIMULATION_HORIZON + 1];
+        int travelRounds = getTravelRounds(remainingKarbonite, deposits);
+
+        int workers = currentWorkers;
+        int miners = currentWorkers;
+        double remaining = remainingKarbonite;
+        double stock = karbonite;
+        affordableRound[0] = SIMULATION_HORIZON;
+
+        for (int round = 0; round < SIMULATION_HORIZON; round++) {
+            miners += arrivingWorkers[round];
+
+            // Every worker can replicate once per round while there is karbonite for it
+            int replicated = Math.min(Math.min(workers, targetWorkers - workers), (int)(stock / REPLICATE_COST));
+            if (replicated > 0) {
+                workers += replicated;
+                stock -= replicated * REPLICATE_COST;
+                arrivingWorkers[Math.min(SIMULATION_HORIZON, round + 1 + travelRounds)] += replicated;
+            }
+
+            int remainingDeposits = deposits == 0 ? 0 : (int)Math.ceil(deposits * remaining / Math.max(1, remainingKarbonite));
+            int activeMiners = Math.min(miners, remainingDeposits * MAX_WORKERS_PER_DEPOSIT);
+
+            // Share of a worker's time spent harvesting rather than walking to the next deposit
+            double roundsPerDeposit = remainingDeposits == 0 ? 0 : remaining / remainingDeposits / harvestAmount;
+            double efficiency = roundsPerDeposit / (roundsPerDeposit + getTravelRounds((int)remaining, remainingDeposits));
+
+            double income = Math.min(remaining, activeMiners * harvestAmount * efficiency);
+            remaining -= income;
+            // Teams also get a passive income that shrinks as their stock grows
+            stock += income + Math.max(0, BASE_PASSIVE_INCOME - (int)(stock / KARBONITE_DECREASE_DIVISOR));
+
+            if (stock >= FACTORY_COST && affordableRound[0] == SIMULATION_HORIZON) {
+                affordableRound[0] = round;
+            }
+        }
+
+        return (int)stock;
+    }
+
+    /**
+     * Gets the average number of rounds a worker walks between deposits, from the spacing of the deposits
+     * @param remainingKarbonite The karbonite left in reachable deposits
+     * @param deposits The number of reachable deposits
+     * @return The average number of rounds to walk to the next deposit
+     */
+    private static int getTravelRounds(int remainingKarbonite, int deposits) {
+        if (deposits == 0 || remainingKarbonite == 0) {
+            return SIMULATION_HORIZON;
+        }
+        return (int)Math.ceil(Math.sqrt((double)reachableArea / deposits));
+    }
+}
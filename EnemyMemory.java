@@ -0,0 +1,182 @@
+import bc.*;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Memory of every enemy unit seen on this planet. The visible enemies are read once a round with a single units()
+ * call and their last seen location, type, health and round are kept in arrays indexed by unit id. A heatmap of
+ * enemy presence is kept per cell and decays over time, so cells where enemies are often seen stay warm. An enemy
+ * is forgotten once its last seen cell is in vision again and it is not there anymore.
+ */
+public class EnemyMemory {
+
+    // Fraction of the heat of a cell that is kept each round
+    private static final double HEAT_DECAY = 0.95;
+    private static final double HEAT_PER_SIGHTING = 1.0;
+    private static final int HEAT_WEIGHT = 10;
+
+    // Rounds since a robot was seen that lower its value by one. Structures cannot move so they do not go stale
+    private static final int AGE_DIVISOR = 5;
+    private static final int HEALTH_DIVISOR = 25;
+
+    // Value of each unit type as a target, indexed by the ordinal of the unit type
+    private static final int[] TYPE_VALUES = {35, 30, 40, 45, 50, 100, 80};
+
+    private static int[] lastX = new int[0];
+    private static int[] lastY = new int[0];
+    private static int[] unitTypes = new int[0];
+    private static int[] health = new int[0];
+    private static int[] lastSeenRounds = new int[0];
+    private static BitSet rememberedIds = new BitSet();
+    private static final int[] typeCounts = new int[UnitType.values().length];
+
+    private static double[] heat = null;
+    private static int[] heatRounds;
+
+    /**
+     * Method that will read the enemies in vision this round into the memory. Called once a round right after the
+     * round snapshot is taken
+     */
+    public static void update() {
+        Planet planet = Player.planet;
+        if (heat == null) {
+            heat = new double[MapGrid.getCellCount(planet)];
+            heatRounds = new int[heat.length];
+        }
+
+        int round = (int)(Player.gc.round());
+        VecUnit visibleUnits = Player.gc.units();
+        for (int i = 0; i < visibleUnits.size(); i++) {
+            Unit unit = visibleUnits.get(i);
+            if (unit.team() == Player.team || !unit.location().isOnPlanet(planet)) {
+                continue;
+            }
+
+            int unitId = unit.id();
+            ensureCapacity(unitId);
+
+            if (!rememberedIds.get(unitId)) {
+                typeCounts[unit.unitType().swigValue()]++;
+            }
+
+            MapLocation mapLocation = unit.location().mapLocation();
+            lastX[unitId] = mapLocation.getX();
+            lastY[unitId] = mapLocation.getY();
+            unitTypes[unitId] = unit.unitType().swigValue();
+            health[unitId] = (int)(unit.health());
+            lastSeenRounds[unitId] = round;
+            rememberedIds.set(unitId);
+
+            int index = MapGrid.toIndex(planet, lastX[unitId], lastY[unitId]);
+            heat[index] = getHeat(index, round) + HEAT_PER_SIGHTING;
+            heatRounds[index] = round;
+        }
+
+        // Forget the enemies that were not seen this round even though their last seen cell is in vision
+        for (int unitId = rememberedIds.nextSetBit(0); unitId != -1; unitId = rememberedIds.nextSetBit(unitId + 1)) {
+            if (lastSeenRounds[unitId] != round && Player.gc.canSenseLocation(getLastSeenLocation(unitId))) {
+                rememberedIds.clear(unitId);
+                typeCounts[unitTypes[unitId]]--;
+            }
+        }
+    }
+
+    public static boolean isRemembered(int unitId) {
+        return rememberedIds.get(unitId);
+    }
+
+    public static MapLocation getLastSeenLocation(int unitId) {
+        return new MapLocation(Player.planet, lastX[unitId], lastY[unitId]);
+    }
+
+    public static UnitType getUnitType(int unitId) {
+        return UnitType.swigToEnum(unitTypes[unitId]);
+    }
+
+    public static int getHealth(int unitId) {
+        return health[unitId];
+    }
+
+    public static int getLastSeenRound(int unitId) {
+        return lastSeenRounds[unitId];
+    }
+
+    public static int getRememberedCount() {
+        return rememberedIds.cardinality();
+    }
+
+    /**
+     * Gets the number of remembered enemies of a type, in vision or not
+     * @param unitType The type of unit
+     * @return The number of enemies of the type
+     */
+    public static int getRememberedCount(UnitType unitType) {
+        return typeCounts[unitType.swigValue()];
+    }
+
+    /**
+     * Gets the decayed heat of a cell, which is higher the more often and the more recently enemies were seen there
+     * @param index The packed index of the cell
+     * @return The heat of the cell
+     */
+    public static double getHeat(int index) {
+        return heat == null ? 0 : getHeat(index, (int)(Player.gc.round()));
+    }
+
+    /**
+     * Finds the remembered enemy that is out of vision and is worth the most to attack. Valuable unit types, weak
+     * units, and units in cells where enemies gather are preferred, and robots lose value the longer ago they were seen
+     * @return The id of the enemy or -1 if no enemies out of vision are remembered
+     */
+    public static int getMostValuableStaleTarget() {
+        int round = (int)(Player.gc.round());
+        int bestUnitId = -1;
+        int bestScore = Integer.MIN_VALUE;
+        for (int unitId = rememberedIds.nextSetBit(0); unitId != -1; unitId = rememberedIds.nextSetBit(unitId + 1)) {
+            if (lastSeenRounds[unitId] == round) {
+                continue;
+            }
+
+            int score = TYPE_VALUES[unitTypes[unitId]] - health[unitId] / HEALTH_DIVISOR;
+            if (unitTypes[unitId] != UnitType.Factory.swigValue() && unitTypes[unitId] != UnitType.Rocket.swigValue()) {
+                score -= (round - lastSeenRounds[unitId]) / AGE_DIVISOR;
+            }
+            score += (int)(getHeat(MapGrid.toIndex(Player.planet, lastX[unitId], lastY[unitId]), round) * HEAT_WEIGHT);
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestUnitId = unitId;
+            }
+        }
+
+        return bestUnitId;
+    }
+
+    /**
+     * Helper method that will apply the decay since the cell was last updated to its heat
+     * @param index The packed index of the cell
+     * @param round The current round
+     * @return The heat of the cell on the given round
+     */
+    private static double getHeat(int index, int round) {
+        return heat[index] * Math.pow(HEAT_DECAY, round - heatRounds[index]);
+    }
+
+    /**
+     * Helper method that will grow the id indexed arrays so that they can hold the given id
+     * @param unitId The id that must fit in the arrays
+     */
+    private static void ensureCapacity(int unitId) {
+        if (unitId < lastX.length) {
+            return;
+        }
+
+        int newLength = Math.max(unitId + 1, lastX.length * 2);
+        lastX = Arrays.copyOf(lastX, newLength);
+        lastY = Arrays.copyOf(lastY, newLength);
+        unitTypes = Arrays.copyOf(unitTypes, newLength);
+        health = Arrays.copyOf(health, newLength);
+        lastSeenRounds = Arrays.copyOf(lastSeenRounds, newLength);
+    }
+}
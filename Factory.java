@@ -1,12 +1,27 @@
 import bc.*;
 
+import java.util.Arrays;
+
 public class Factory extends UnitInstance {
 
+    // Each move closer to the objective is worth this many crowded neighbours when ranking exits
+    private static final int EXIT_DISTANCE_WEIGHT = 2;
+
     private boolean isBuilt;
+    private UnitType productionOrder;
 
     public Factory(int id, boolean isBuilt) {
-        super(id);
+        super(id, UnitType.Factory);
         this.isBuilt = isBuilt;
+        this.productionOrder = null;
+    }
+
+    public boolean isBuilt() {
+        return isBuilt;
+    }
+
+    public void setProductionOrder(UnitType productionOrder) {
+        this.productionOrder = productionOrder;
     }
 
     /**
@@ -23,94 +38,131 @@ public class Factory extends UnitInstance {
     }
 
     /**
-     * Method that will run code for the factory
+     * Method that will run code for the factory. Produces the unit ordered by the production planner this round
      */
     @Override
     public void run() {
-        if (isBuilt) {
-            UnitType unitToProduce = findUnitToProduce();
-            if (Player.gc.canProduceRobot(this.getId(), unitToProduce)) {
-                Player.gc.produceRobot(this.getId(), unitToProduce);
-
-                switch (unitToProduce) {
-                    case Knight:
-                        Earth.knightCount++;
-                        //System.out.println("Knight count " + Earth.knightCount);
-                        break;
-                    case Ranger:
-                        Earth.rangerCount++;
-                        //System.out.println("Ranger count " + Earth.rangerCount);
-                        break;
-                    case Healer:
-                        Earth.healerCount++;
-                        //System.out.println("Healer count " + Earth.healerCount);
-                        break;
-                    case Mage:
-                        Earth.mageCount++;
-                        //System.out.println("Mage count " + Earth.mageCount);
-                        break;
-                }
+        if (isBuilt && productionOrder != null) {
+            if (Player.gc.canProduceRobot(this.getId(), productionOrder)) {
+                Player.gc.produceRobot(this.getId(), productionOrder);
             }
+            productionOrder = null;
         }
 
         unload();
     }
 
     /**
-     * Method that will unload units inside its garrison when it can
+     * Method that will unload the units inside its garrison when it can. The exits are ranked once from the round
+     * snapshot, preferring free cells closest to the objective of the army with the fewest friendly units around
+     * them, so new units spread out towards the front instead of piling up on one side of the factory. The units
+     * are registered from the ids and types in the round snapshot without sensing them
      */
     public void unload() {
-        for (int i = 0; i < 8; i++) {
-            Direction direction = Direction.swigToEnum(i);
-            if (Player.gc.canUnload(this.getId(), direction)) {
-                Player.gc.unload(this.getId(), direction);
-
-                MapLocation unloadLocation = this.getLocation().add(direction);
-                int unitId = Player.gc.senseUnitAtLocation(unloadLocation).id();
-                UnitType unitType = Player.gc.unit(unitId).unitType();
-
-                UnitInstance unitInstance = null;
-                switch (unitType) {
-                    case Knight:
-                        unitInstance = new Knight(unitId);
-                        break;
-                    case Ranger:
-                        unitInstance = new Ranger(unitId);
-                        break;
-                    case Healer:
-                        unitInstance = new Healer(unitId);
-                        break;
-                    case Mage:
-                        unitInstance = new Mage(unitId);
-                        break;
-                    case Worker:
-                        unitInstance = new Worker(unitId);
-                        Earth.earthStagingWorkerMap.put(unitId, unitInstance);
-                        return;
-                    default:
-                        unitInstance = new Knight(unitId);
-                        System.out.println("ERROR in UNLOAD, unit type: " + unitType);
-                }
+        VecUnitID garrison = Player.gc.unit(this.getId()).structureGarrison();
+        if (garrison.size() == 0) {
+            return;
+        }
+
+        int[] exits = rankExits();
+        int nextExit = 0;
+        for (int i = 0; i < garrison.size() && nextExit < exits.length; i++) {
+            int unitId = garrison.get(i);
 
-                Earth.earthStagingAttackerMap.put(unitId, unitInstance);
+            while (nextExit < exits.length && !Player.gc.canUnload(this.getId(), Direction.swigToEnum(exits[nextExit]))) {
+                nextExit++;
             }
+            if (nextExit == exits.length) {
+                return;
+            }
+
+            Direction direction = Direction.swigToEnum(exits[nextExit++]);
+            Player.gc.unload(this.getId(), direction);
+
+            // Units produced before the snapshot was taken are already in it
+            UnitType unitType = RoundSnapshot.getUnitType(unitId);
+            if (unitType == null) {
+                unitType = Player.gc.unit(unitId).unitType();
+            }
+
+            MapLocation unloadLocation = this.getLocation().add(direction);
+            RoundSnapshot.recordUnloaded(unitId, unitType, unloadLocation);
+            registerUnit(unitId, unitType, unloadLocation);
         }
     }
 
     /**
-     * Method that will tell the factory produce a specific unit given the current unit counts.
-     * @return The unit to produce
+     * Helper method that will rank the directions around the factory whose cells are passable and not taken by a
+     * friendly unit
+     * @return The ranked directions, best first
      */
-    private UnitType findUnitToProduce() {
+    private int[] rankExits() {
+        Planet planet = Player.planet;
+        int factoryIndex = MapGrid.toIndex(this.getLocation());
+        MapLocation objectiveLocation = Player.getController().getObjectiveManager().getArmyObjective(factoryIndex);
+
+        long[] exitKeys = new long[8];
+        int exitCount = 0;
+        for (int direction = 0; direction < 8; direction++) {
+            int exitIndex = MapGrid.getNeighbour(planet, factoryIndex, direction);
+            if (exitIndex == -1 || !MapGrid.isPassable(planet, exitIndex) || RoundSnapshot.isOccupied(exitIndex)) {
+                continue;
+            }
 
-        if (Earth.healerCount < (Earth.knightCount) * (.5) && Earth.knightCount > 5) {
-            return UnitType.Healer;
-        } else {
+            int crowding = 0;
+            for (int neighbourDirection = 0; neighbourDirection < 8; neighbourDirection++) {
+                int neighbour = MapGrid.getNeighbour(planet, exitIndex, neighbourDirection);
+                if (neighbour != -1 && RoundSnapshot.isOccupied(neighbour)) {
+                    crowding++;
+                }
+            }
 
-            return UnitType.Knight;
+            int score = crowding;
+            if (objectiveLocation != null) {
+                MapLocation exitLocation = MapGrid.toLocation(planet, exitIndex);
+                score += EXIT_DISTANCE_WEIGHT * Math.max(Math.abs(exitLocation.getX() - objectiveLocation.getX()),
+                        Math.abs(exitLocation.getY() - objectiveLocation.getY()));
+            }
+            exitKeys[exitCount++] = ((long)score << 32) | direction;
+        }
 
+        Arrays.sort(exitKeys, 0, exitCount);
+        int[] exits = new int[exitCount];
+        for (int i = 0; i < exitCount; i++) {
+            exits[i] = (int)(exitKeys[i] & 0xFFFFFFFFL);
+        }
+        return exits;
+    }
+
+    /**
+     * Helper method that will create the instance of a unit that was unloaded and stage it in the unit registry
+     * @param unitId The id of the unit
+     * @param unitType The type of the unit
+     * @param unloadLocation The location the unit was unloaded to
+     */
+    private void registerUnit(int unitId, UnitType unitType, MapLocation unloadLocation) {
+        UnitInstance unitInstance;
+        switch (unitType) {
+            case Knight:
+                unitInstance = new Knight(unitId);
+                break;
+            case Ranger:
+                unitInstance = new Ranger(unitId);
+                break;
+            case Healer:
+                unitInstance = new Healer(unitId);
+                break;
+            case Mage:
+                unitInstance = new Mage(unitId);
+                break;
+            case Worker:
+                Player.getController().getUnits().stage(UnitGroup.WORKER, new Worker(unitId, unloadLocation));
+                return;
+            default:
+                unitInstance = new Knight(unitId);
+                System.out.println("ERROR in UNLOAD, unit type: " + unitType);
         }
 
+        Player.getController().getUnits().stage(UnitGroup.ATTACKER, unitInstance);
     }
 }
-
@@ -0,0 +1,57 @@
+import bc.*;
+
+import java.util.Arrays;
+
+/**
+ * Distance field to a single target cell on a planet. Built once with a breadth first search over the passable
+ * terrain, ignoring units, so the number of moves from any cell to the target is an O(1) lookup.
+ */
+public class FlowField {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final Planet planet;
+    private final int targetIndex;
+    private final int[] distance;
+
+    public FlowField(Planet planet, int targetIndex) {
+        this.planet = planet;
+        this.targetIndex = targetIndex;
+        this.distance = new int[MapGrid.getCellCount(planet)];
+
+        Arrays.fill(distance, UNREACHABLE);
+        int[] frontier = new int[distance.length];
+        int head = 0;
+        int tail = 0;
+        distance[targetIndex] = 0;
+        frontier[tail++] = targetIndex;
+
+        while (head < tail) {
+            int currentIndex = frontier[head++];
+            for (int direction = 0; direction < 8; direction++) {
+                int neighbour = MapGrid.getNeighbour(planet, currentIndex, direction);
+                if (neighbour != -1 && distance[neighbour] == UNREACHABLE && MapGrid.isPassable(planet, neighbour)) {
+                    distance[neighbour] = distance[currentIndex] + 1;
+                    frontier[tail++] = neighbour;
+                }
+            }
+        }
+    }
+
+    public Planet getPlanet() {
+        return planet;
+    }
+
+    public int getTargetIndex() {
+        return targetIndex;
+    }
+
+    /**
+     * Gets the number of moves from a cell to the target ignoring units
+     * @param index The packed index of the cell
+     * @return The number of moves or UNREACHABLE if the target cannot be reached
+     */
+    public int getDistance(int index) {
+        return distance[index];
+    }
+}
@@ -9,40 +9,52 @@ public class GlobalTask {
     private static final int MAX_WORKER_COUNT = 4;
 
     private int taskId;
-    private boolean isBuilt;
-    private boolean hasBlueprinted;
+    private TaskState state;
     private HashSet<Integer> unitsOnTask;
     private Command command;
     private MapLocation taskLocation;
+    private long deadlineRound;
 
     public GlobalTask(Command command, MapLocation taskLocation) {
         taskIndex++;
         this.taskId = taskIndex;
-        this.isBuilt = false;
-        this.hasBlueprinted = false;
+        this.state = TaskState.PENDING;
         this.command = command;
         this.unitsOnTask = new HashSet<>();
         this.taskLocation = taskLocation;
+        this.deadlineRound = Player.gc.round() + GlobalTaskScheduler.getDeadlineRounds(command);
     }
 
     public int getTaskId() {
         return taskId;
     }
 
+    public TaskState getState() {
+        return state;
+    }
+
+    public void setState(TaskState state) {
+        this.state = state;
+    }
+
     public void structureHasBeenBlueprinted() {
-        hasBlueprinted = true;
+        if (state != TaskState.BUILT && state != TaskState.CLOSED) {
+            state = TaskState.BLUEPRINTED;
+        }
     }
 
     public boolean hasBlueprinted() {
-        return hasBlueprinted;
+        return state == TaskState.BLUEPRINTED || hasBuilt();
     }
 
     public void structureHasBeenBuilt() {
-        isBuilt = true;
+        if (state != TaskState.CLOSED) {
+            state = TaskState.BUILT;
+        }
     }
 
     public boolean hasBuilt() {
-        return isBuilt;
+        return state == TaskState.BUILT || (state == TaskState.CLOSED && command != Command.LOAD_ROCKET);
     }
 
     public Command getCommand() {
@@ -61,19 +73,19 @@ public class GlobalTask {
         this.taskLocation = taskLocation;
     }
 
+    public long getDeadlineRound() {
+        return deadlineRound;
+    }
+
     /**
      * Adds a worker to the task list and send the worker the set of commands it needs to complete the global task
      * @param workerId The id of the worker being added
      */
     public void addWorkerToList(int workerId) {
         unitsOnTask.add(workerId);
-        UnitInstance worker = Earth.earthWorkerMap.get(workerId);
-
-        // If the worker currently is wandering, then poll the task
-        if (worker.hasTasks() && worker.getCurrentTask().getCommand() == Command.WANDER) {
-            System.out.println("Worker: " + worker.getId() + " removed its wander task");
-            worker.pollCurrentTask();
-        }
+        markAssigned();
+        UnitInstance worker = Player.getController().getUnits().get(UnitGroup.WORKER, workerId);
+        dropLocalSteps(worker);
 
         RobotTask moveTask = new RobotTask(taskId, Command.MOVE, taskLocation);
         worker.addTaskToQueue(moveTask);
@@ -97,29 +109,29 @@ public class GlobalTask {
      */
     public void addUnitToList(int unitId) {
         unitsOnTask.add(unitId);
+        markAssigned();
         UnitInstance unit;
 
         if (Player.gc.unit(unitId).unitType() == UnitType.Worker) {
-            unit = Earth.earthWorkerMap.get(unitId);
+            unit = Player.getController().getUnits().get(UnitGroup.WORKER, unitId);
         } else {
-            unit = Earth.earthAttackerMap.get(unitId);
+            unit = Player.getController().getUnits().get(UnitGroup.ATTACKER, unitId);
         }
 
-        // If the unit is currently wandering, remove the task
-        if (unit.hasTasks() && unit.getCurrentTask().getCommand() == Command.WANDER) {
-            System.out.println("Unit: " + unit.getId() + " removed its wander task");
-            unit.pollCurrentTask();
-        }
+        dropLocalSteps(unit);
 
         RobotTask moveTask = new RobotTask(taskId, Command.MOVE, taskLocation);
         unit.addTaskToQueue(moveTask);
 
         RobotTask stallTask = new RobotTask(taskId, Command.STALL, taskLocation);
         unit.addTaskToQueue(stallTask);
+
+        Player.getController().getLoadingCoordinator().reserveSlot(taskLocation, unitId);
     }
 
     /**
-     * Removes a worker from the list and at the same time tries to find another one to complete the tasks
+     * Removes a worker from the list and at the same time tries to find another one to complete the tasks. The
+     * steps of the task left in the queue of the worker are dropped
      * @param workerId The id of the worker being removed
      */
     public void removeWorkerFromList(int workerId) {
@@ -130,14 +142,29 @@ public class GlobalTask {
             System.out.println("Worker: " + workerId + " was not part of the task?");
         }
 
-        // Assign the task to another worker. If none are found, it stops trying to find another unit
-        for (int unitId: Earth.earthWorkerMap.keySet()) {
-            UnitInstance unit = Earth.earthWorkerMap.get(unitId);
-            if (!unit.hasTasks() || (unit.hasTasks() && unit.getCurrentTask().getTaskId() == -1)) {
+        UnitRegistry units = Player.getController().getUnits();
+        UnitInstance removedUnit = units.contains(UnitGroup.WORKER, workerId) ? units.get(UnitGroup.WORKER, workerId) :
+                units.get(UnitGroup.ATTACKER, workerId);
+        if (removedUnit != null) {
+            removedUnit.removeQueuedSteps(taskId);
+        }
+
+        // Give back the rocket slot of the unit and let the scheduler find another unit to fill it
+        if (command == Command.LOAD_ROCKET) {
+            Player.getController().getLoadingCoordinator().releaseUnit(workerId);
+            Player.getController().getTaskScheduler().requeueTask(this);
+            return;
+        }
+
+        // Assign the task to another worker. If none are found, the scheduler staffs the task once workers are free
+        for (int unitId = units.nextId(UnitGroup.WORKER, 0); unitId != -1; unitId = units.nextId(UnitGroup.WORKER, unitId + 1)) {
+            UnitInstance unit = units.get(UnitGroup.WORKER, unitId);
+            if (unitId != workerId && (!unit.hasTasks() || unit.getCurrentTask().getTaskId() == -1)) {
                 addWorkerToList(unitId);
-                break;
+                return;
             }
         }
+        Player.getController().getTaskScheduler().requeueTask(this);
     }
 
     /**
@@ -147,15 +174,38 @@ public class GlobalTask {
     public boolean checkGlobalTaskStatus(Command command) {
         switch (command) {
             case BLUEPRINT_FACTORY:
-                return hasBlueprinted;
+                return hasBlueprinted();
             case BLUEPRINT_ROCKET:
-                return hasBlueprinted;
+                return hasBlueprinted();
             case BUILD:
-                return isBuilt;
+                return hasBuilt();
             case STALL:
-                return false;
+                return state == TaskState.CLOSED;
             default:
                 return false;
         }
     }
+
+    /**
+     * Helper method that will remove the steps at the front of a unit's queue that are not part of a global task,
+     * such as wandering or walking to a deposit, so the unit goes straight to this task. The deposit the unit was
+     * holding is given back to the mining planner
+     * @param unit The unit being added to the task
+     */
+    private void dropLocalSteps(UnitInstance unit) {
+        while (unit.hasTasks() && unit.getCurrentTask().getTaskId() == -1) {
+            System.out.println("Unit: " + unit.getId() + " removed its " + unit.getCurrentTask().getCommand() + " task");
+            unit.pollCurrentTask();
+        }
+        Player.getController().getMiningPlanner().releaseWorker(unit.getId());
+    }
+
+    /**
+     * Helper method that will move a task that was waiting for units into the assigned state
+     */
+    private void markAssigned() {
+        if (state == TaskState.PENDING) {
+            state = TaskState.ASSIGNED;
+        }
+    }
 }
@@ -0,0 +1,138 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * Scheduler for the global tasks that still need units. Every round the pending tasks are ordered by priority,
+ * with tasks that have passed their deadline moved ahead, and as many of them as the per round work cap allows
+ * are prepared and matched with units in one batch. A task that cannot find units does not block the tasks behind
+ * it, but it does use up its share of the cap.
+ */
+public class GlobalTaskScheduler {
+
+    // Maximum number of tasks prepared and matched with units per round
+    private static final int MAX_TASKS_PER_ROUND = 4;
+
+    // Priority added to a task once it has passed its deadline
+    private static final int OVERDUE_PRIORITY_BOOST = 10;
+
+    private final PlanetController controller;
+    private final ArrayList<GlobalTask> pendingTasks;
+
+    public GlobalTaskScheduler(PlanetController controller) {
+        this.controller = controller;
+        this.pendingTasks = new ArrayList<>();
+    }
+
+    public void addTask(GlobalTask globalTask) {
+        pendingTasks.add(globalTask);
+    }
+
+    /**
+     * Method that will put a task that lost one of its units back into the pending list so that it is staffed again
+     * @param globalTask The global task that needs another unit
+     */
+    public void requeueTask(GlobalTask globalTask) {
+        if (globalTask.getState() != TaskState.CLOSED && !pendingTasks.contains(globalTask)) {
+            pendingTasks.add(globalTask);
+        }
+    }
+
+    public ArrayList<GlobalTask> getPendingTasks() {
+        return pendingTasks;
+    }
+
+    /**
+     * Gets the base priority of a task command. Loading a rocket is the most urgent since it is time sensitive
+     * @param command The command of the global task
+     * @return The priority of the command, higher is more urgent
+     */
+    public static int getBasePriority(Command command) {
+        switch (command) {
+            case LOAD_ROCKET:
+                return 3;
+            case CONSTRUCT_ROCKET:
+                return 2;
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * Gets the number of rounds after it was created that a task should have its units
+     * @param command The command of the global task
+     * @return The number of rounds until the task is overdue
+     */
+    public static int getDeadlineRounds(Command command) {
+        switch (command) {
+            case LOAD_ROCKET:
+                return 30;
+            case CONSTRUCT_ROCKET:
+                return 50;
+            default:
+                return 75;
+        }
+    }
+
+    /**
+     * Method that will give units to the highest priority pending tasks, up to the cap for the round. Tasks that
+     * have all the units they need are removed from the pending list
+     */
+    public void assignTasks() {
+        if (pendingTasks.isEmpty()) {
+            return;
+        }
+
+        // Tasks that were retired before they got all their units, such as a rocket that launched, are dropped
+        for (int i = pendingTasks.size() - 1; i >= 0; i--) {
+            if (pendingTasks.get(i).getState() == TaskState.CLOSED) {
+                controller.getTaskMatcher().releaseTask(pendingTasks.remove(i));
+            }
+        }
+
+        final long round = Player.gc.round();
+        Collections.sort(pendingTasks, new Comparator<GlobalTask>() {
+            @Override
+            public int compare(GlobalTask first, GlobalTask second) {
+                int priorityDifference = getEffectivePriority(second, round) - getEffectivePriority(first, round);
+                if (priorityDifference != 0) {
+                    return priorityDifference;
+                }
+                if (first.getDeadlineRound() != second.getDeadlineRound()) {
+                    return first.getDeadlineRound() < second.getDeadlineRound() ? -1 : 1;
+                }
+                return first.getTaskId() - second.getTaskId();
+            }
+        });
+
+        // Pick the highest priority tasks that can be worked on this round and match them in one batch. Every task
+        // looked at counts against the cap, since picking a site for a task can fail after searching the map
+        ArrayList<GlobalTask> batch = new ArrayList<>();
+        for (int i = 0; i < pendingTasks.size() && i < MAX_TASKS_PER_ROUND; i++) {
+            GlobalTask globalTask = pendingTasks.get(i);
+
+            // A construction task whose location cannot be picked yet is skipped for this round
+            if (controller.prepareTaskLocation(globalTask)) {
+                batch.add(globalTask);
+            }
+        }
+
+        controller.getTaskMatcher().matchTasks(batch);
+
+        for (GlobalTask globalTask: batch) {
+            if (TaskMatcher.isTaskStaffed(globalTask)) {
+                // System.out.println("Units have been assigned for task: " + globalTask.getTaskId());
+                pendingTasks.remove(globalTask);
+                controller.getTaskMatcher().releaseTask(globalTask);
+            }
+        }
+    }
+
+    private static int getEffectivePriority(GlobalTask globalTask, long round) {
+        int priority = getBasePriority(globalTask.getCommand());
+        if (round > globalTask.getDeadlineRound()) {
+            priority += OVERDUE_PRIORITY_BOOST;
+        }
+        return priority;
+    }
+}
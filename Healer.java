@@ -5,7 +5,7 @@ import java.util.ArrayList;
 public class Healer extends Attacker {
 
     public Healer(int id) {
-        super(id);
+        super(id, UnitType.Healer);
     }
 
     @Override
@@ -73,17 +73,12 @@ public class Healer extends Attacker {
      */
     @Override
     public void updateTargets() {
-        if (!Earth.earthAttackerMap.containsKey(this.getFocusedTargetId())) {
+        if (!Player.getController().getUnits().contains(UnitGroup.ATTACKER, this.getFocusedTargetId())) {
             // System.out.println("Finding a new target!");
             this.setFocusedTargetId(getLowestHealthFriendly());
         }
     }
     
-    @Override
-    public void updateLocationToWander() {
-        // Do nothing
-    }
-
     /**
      * Overrides the attacker's executeCurrentTask so that it doesn't remove attack targets from the map
      */
@@ -110,6 +105,7 @@ public class Healer extends Attacker {
                 if (Player.gc.canMove(this.getId(), Direction.swigToEnum(i)) && Player.gc.isMoveReady(this.getId())) {
                     // System.out.println("Moving....");
                     Player.gc.moveRobot(this.getId(), Direction.swigToEnum(i));
+                    RoundSnapshot.recordMove(this.getId(), Direction.swigToEnum(i));
                 }
             }
 
@@ -117,8 +113,8 @@ public class Healer extends Attacker {
             // System.out.println("Healer has focus");
             int friendlyTarget = this.getFocusedTargetId();
             // System.out.println(friendlyTarget);
-            // System.out.println(Earth.earthAttackerMap.get(friendlyTarget).getId());
-            MapLocation friendlyAttackerLocation = Earth.earthAttackerMap.get(friendlyTarget).getLocation();
+            // System.out.println(Player.getController().getUnits().get(UnitGroup.ATTACKER, friendlyTarget).getId());
+            MapLocation friendlyAttackerLocation = Player.getController().getUnits().get(UnitGroup.ATTACKER, friendlyTarget).getLocation();
             int distanceToFriendly = (int)(this.getLocation().distanceSquaredTo(friendlyAttackerLocation));
 
             if (distanceToFriendly > this.getAttackRange()) {
@@ -0,0 +1,214 @@
+import bc.*;
+
+import java.util.Arrays;
+
+/**
+ * Map of the known karbonite deposits of a planet. Seeded from the initial karbonite of the starting map and kept
+ * up to date from harvests and a bounded sensing sweep each round. Also keeps a multi-source distance field to
+ * the nearest non-empty deposit so that a unit can find its nearest deposit by following the gradient.
+ */
+public class KarboniteMap {
+
+    private static final int SENSE_CHECKS_PER_ROUND = 40;
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final Planet planet;
+    private final int cellCount;
+    private final int[] karbonite;
+    private final int[] distance;
+    private final int[] frontier;
+
+    // Unordered list of all the cells with karbonite and the position of each cell in that list
+    private final int[] depositCells;
+    private final int[] depositPositions;
+    private int depositCount;
+    private int totalKarbonite;
+
+    private int sweepPosition;
+    private boolean isDistanceDirty;
+    private long lastComputedRound;
+
+    public KarboniteMap(Planet planet) {
+        this.planet = planet;
+        this.cellCount = MapGrid.getCellCount(planet);
+        this.karbonite = new int[cellCount];
+        this.distance = new int[cellCount];
+        this.frontier = new int[cellCount];
+        this.depositCells = new int[cellCount];
+        this.depositPositions = new int[cellCount];
+        this.depositCount = 0;
+        this.sweepPosition = 0;
+        this.isDistanceDirty = true;
+        this.lastComputedRound = -1;
+
+        Arrays.fill(depositPositions, -1);
+
+        PlanetMap planetMap = Player.gc.startingMap(planet);
+        for (int index = 0; index < cellCount; index++) {
+            if (MapGrid.isPassable(planet, index)) {
+                setKarbonite(index, (int)(planetMap.initialKarboniteAt(MapGrid.toLocation(planet, index))));
+            }
+        }
+    }
+
+    public Planet getPlanet() {
+        return planet;
+    }
+
+    public int getKarbonite(int index) {
+        return karbonite[index];
+    }
+
+    public int getDepositCount() {
+        return depositCount;
+    }
+
+    public int getTotalKarbonite() {
+        return totalKarbonite;
+    }
+
+    public int getDepositCell(int position) {
+        return depositCells[position];
+    }
+
+    /**
+     * Method that will record the karbonite a worker has harvested from a cell
+     * @param index The packed index of the harvested cell
+     * @param amount The amount of karbonite harvested
+     */
+    public void recordHarvest(int index, int amount) {
+        setKarbonite(index, Math.max(0, karbonite[index] - amount));
+    }
+
+    /**
+     * Method that will add karbonite to a cell, used when a deposit appears that was not on the starting map
+     * @param index The packed index of the cell
+     * @param amount The amount of karbonite added
+     */
+    public void addKarbonite(int index, int amount) {
+        setKarbonite(index, karbonite[index] + amount);
+    }
+
+    /**
+     * Method that will check a bounded number of known deposits each round. Any deposit that can be sensed is
+     * updated to its actual value so karbonite harvested by the enemy is eventually noticed.
+     */
+    public void updateFromSensing() {
+        int checks = Math.min(SENSE_CHECKS_PER_ROUND, depositCount);
+        for (int i = 0; i < checks && depositCount > 0; i++) {
+            if (sweepPosition >= depositCount) {
+                sweepPosition = 0;
+            }
+
+            int index = depositCells[sweepPosition];
+            MapLocation location = MapGrid.toLocation(planet, index);
+            if (Player.gc.canSenseLocation(location)) {
+                setKarbonite(index, (int)(Player.gc.karboniteAt(location)));
+            }
+
+            // If the deposit was emptied it has been swapped out of the list and the same position holds a new cell
+            if (depositPositions[index] != -1) {
+                sweepPosition++;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of moves from a cell to the nearest non-empty deposit ignoring units
+     * @param index The packed index of the cell
+     * @return The number of moves or UNREACHABLE if no deposit can be reached
+     */
+    public int getDistance(int index) {
+        updateDistanceField();
+        return distance[index];
+    }
+
+    /**
+     * Method that will find the nearest deposit to a location by following the distance field downhill
+     * @param mapLocation The location to start from
+     * @return The MapLocation of the nearest deposit or null if there are none reachable
+     */
+    public MapLocation findNearestDeposit(MapLocation mapLocation) {
+        updateDistanceField();
+
+        int currentIndex = MapGrid.toIndex(mapLocation);
+        if (distance[currentIndex] == UNREACHABLE) {
+            return null;
+        }
+
+        // Rotate the starting direction so that workers do not all gravitate in the same direction on ties
+        int startDirection = currentIndex & 7;
+        while (distance[currentIndex] > 0) {
+            int nextIndex = -1;
+            for (int i = 0; i < 8 && nextIndex == -1; i++) {
+                int neighbour = MapGrid.getNeighbour(planet, currentIndex, (startDirection + i) & 7);
+                if (neighbour != -1 && distance[neighbour] == distance[currentIndex] - 1) {
+                    nextIndex = neighbour;
+                }
+            }
+            currentIndex = nextIndex;
+        }
+
+        return MapGrid.toLocation(planet, currentIndex);
+    }
+
+    /**
+     * Helper method that will set the karbonite of a cell and keep the deposit list in sync
+     * @param index The packed index of the cell
+     * @param amount The new amount of karbonite
+     */
+    private void setKarbonite(int index, int amount) {
+        boolean wasDeposit = karbonite[index] > 0;
+        totalKarbonite += amount - karbonite[index];
+        karbonite[index] = amount;
+
+        if (amount > 0 && !wasDeposit) {
+            depositPositions[index] = depositCount;
+            depositCells[depositCount] = index;
+            depositCount++;
+            isDistanceDirty = true;
+
+        } else if (amount <= 0 && wasDeposit) {
+            int position = depositPositions[index];
+            int lastCell = depositCells[depositCount - 1];
+            depositCells[position] = lastCell;
+            depositPositions[lastCell] = position;
+            depositPositions[index] = -1;
+            depositCount--;
+            isDistanceDirty = true;
+        }
+    }
+
+    /**
+     * Helper method that will recompute the distance field with a multi-source breadth first search from every
+     * deposit. Only runs when the deposits have changed and at most once per round.
+     */
+    private void updateDistanceField() {
+        long round = Player.gc.round();
+        if (!isDistanceDirty || round == lastComputedRound) {
+            return;
+        }
+
+        Arrays.fill(distance, UNREACHABLE);
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < depositCount; i++) {
+            distance[depositCells[i]] = 0;
+            frontier[tail++] = depositCells[i];
+        }
+
+        while (head < tail) {
+            int currentIndex = frontier[head++];
+            for (int direction = 0; direction < 8; direction++) {
+                int neighbour = MapGrid.getNeighbour(planet, currentIndex, direction);
+                if (neighbour != -1 && distance[neighbour] == UNREACHABLE && MapGrid.isPassable(planet, neighbour)) {
+                    distance[neighbour] = distance[currentIndex] + 1;
+                    frontier[tail++] = neighbour;
+                }
+            }
+        }
+
+        isDistanceDirty = false;
+        lastComputedRound = round;
+    }
+}
@@ -1,12 +1,13 @@
 import bc.MapLocation;
 import bc.Team;
 import bc.Unit;
+import bc.UnitType;
 import bc.VecUnit;
 
 public class Knight extends Attacker {
 
     public Knight(int id) {
-        super(id);
+        super(id, UnitType.Knight);
     }
 
     public void run() {
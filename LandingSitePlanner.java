@@ -0,0 +1,151 @@
+import bc.*;
+
+import java.util.Arrays;
+
+/**
+ * Ranks every cell of Mars as a landing site once at the start of the game. Cells in large regions, with many open
+ * neighbours and karbonite close by, including karbonite forecast to arrive from asteroids, are ranked first. Sites
+ * that have been used or are scheduled for a landing are excluded together with their neighbours, so picking the
+ * next site is an amortized O(1) walk down the ranking.
+ */
+public class LandingSitePlanner {
+
+    private static final Planet planet = Planet.Mars;
+
+    // Region sizes above this are all treated as large enough
+    private static final int MAX_REGION_SCORE = 400;
+    private static final int OPEN_NEIGHBOUR_WEIGHT = 20;
+    private static final int KARBONITE_DIVISOR = 4;
+
+    private static int[] rankedSites = null;
+    private static boolean[] isExcluded;
+    private static int nextRank = 0;
+    private static long lastSyncedRound = 0;
+
+    /**
+     * Method that will precompute the region size, open neighbours, and nearby karbonite of every cell on Mars and
+     * rank the passable cells by their score. Called the first time a site is needed
+     */
+    private static void initialize() {
+        int cellCount = MapGrid.getCellCount(planet);
+        isExcluded = new boolean[cellCount];
+
+        // Label the regions of passable cells with a breadth first search and store the size of each cell's region
+        int[] regionSizes = new int[cellCount];
+        int[] frontier = new int[cellCount];
+        boolean[] visited = new boolean[cellCount];
+        for (int root = 0; root < cellCount; root++) {
+            if (visited[root] || !MapGrid.isPassable(planet, root)) {
+                continue;
+            }
+
+            int head = 0;
+            int tail = 0;
+            visited[root] = true;
+            frontier[tail++] = root;
+            while (head < tail) {
+                int currentIndex = frontier[head++];
+                for (int direction = 0; direction < 8; direction++) {
+                    int neighbour = MapGrid.getNeighbour(planet, currentIndex, direction);
+                    if (neighbour != -1 && !visited[neighbour] && MapGrid.isPassable(planet, neighbour)) {
+                        visited[neighbour] = true;
+                        frontier[tail++] = neighbour;
+                    }
+                }
+            }
+
+            for (int i = 0; i < tail; i++) {
+                regionSizes[frontier[i]] = tail;
+            }
+        }
+
+        PlanetMap marsMap = Player.gc.startingMap(planet);
+        long[] siteKeys = new long[cellCount];
+        int siteCount = 0;
+        for (int index = 0; index < cellCount; index++) {
+            if (!MapGrid.isPassable(planet, index)) {
+                continue;
+            }
+
+            int openNeighbours = 0;
+            int nearbyKarbonite = 0;
+            for (int direction = 0; direction < 8 + 1; direction++) {
+                int neighbour = MapGrid.getNeighbour(planet, index, direction);
+                if (neighbour != -1 && MapGrid.isPassable(planet, neighbour)) {
+                    nearbyKarbonite += (int)(marsMap.initialKarboniteAt(MapGrid.toLocation(planet, neighbour))) +
+                            MarsKarboniteForecaster.getForecastKarbonite(neighbour);
+                    if (neighbour != index) {
+                        openNeighbours++;
+                    }
+                }
+            }
+
+            int score = Math.min(regionSizes[index], MAX_REGION_SCORE) + openNeighbours * OPEN_NEIGHBOUR_WEIGHT +
+                    nearbyKarbonite / KARBONITE_DIVISOR;
+
+            // Negate the score so the ascending sort puts the best sites first
+            siteKeys[siteCount++] = ((long)(-score) << 32) | index;
+        }
+
+        Arrays.sort(siteKeys, 0, siteCount);
+        rankedSites = new int[siteCount];
+        for (int i = 0; i < siteCount; i++) {
+            rankedSites[i] = (int)(siteKeys[i] & 0xFFFFFFFFL);
+        }
+    }
+
+    /**
+     * Gets the best landing site that is not used or scheduled for another rocket
+     * @return The MapLocation of the site or null if every site has been used
+     */
+    public static MapLocation pickSite() {
+        if (rankedSites == null) {
+            initialize();
+        }
+        syncWithLandings();
+
+        while (nextRank < rankedSites.length && isExcluded[rankedSites[nextRank]]) {
+            nextRank++;
+        }
+
+        return nextRank < rankedSites.length ? MapGrid.toLocation(planet, rankedSites[nextRank]) : null;
+    }
+
+    /**
+     * Method that will exclude a site and its neighbours once a rocket has been launched to it
+     * @param mapLocation The landing site
+     */
+    public static void reserveSite(MapLocation mapLocation) {
+        if (rankedSites == null) {
+            initialize();
+        }
+
+        int index = MapGrid.toIndex(mapLocation);
+        for (int direction = 0; direction < 8 + 1; direction++) {
+            int neighbour = MapGrid.getNeighbour(planet, index, direction);
+            if (neighbour != -1) {
+                isExcluded[neighbour] = true;
+            }
+        }
+    }
+
+    /**
+     * Helper method that will exclude the sites of the landings that happened since the last sync. Launches made
+     * by this player are reserved as soon as they are made, so only rounds that have already passed are read
+     */
+    private static void syncWithLandings() {
+        long round = Player.gc.round();
+        if (lastSyncedRound >= round) {
+            return;
+        }
+
+        RocketLandingInfo landingInfo = Player.gc.rocketLandings();
+        for (long landingRound = lastSyncedRound + 1; landingRound <= round; landingRound++) {
+            VecRocketLanding landings = landingInfo.landingsOn(landingRound);
+            for (int i = 0; i < landings.size(); i++) {
+                reserveSite(landings.get(i).getDestination());
+            }
+        }
+        lastSyncedRound = round;
+    }
+}
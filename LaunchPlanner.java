@@ -0,0 +1,97 @@
+import bc.*;
+
+/**
+ * Plans rocket launches using the orbit pattern. At the start of the game the arrival round of a launch on every
+ * round is computed, along with the round within the next few rounds that arrives first, using a sliding window
+ * minimum. A full rocket waits for that round unless it is under attack or has waited too long, so deciding if a
+ * rocket launches is O(1).
+ */
+public class LaunchPlanner {
+
+    private static final int ROUND_LIMIT = 1000;
+
+    // Earth is flooded on this round so every rocket must have launched before it
+    private static final int FLOOD_ROUND = 750;
+    private static final int LAST_LAUNCH_ROUND = FLOOD_ROUND - 1;
+
+    // Length of the window searched for a shorter flight, and the most rounds a full rocket waits in total
+    private static final int MAX_WAIT_ROUNDS = 30;
+
+    private static int[] arrivalRounds = new int[0];
+    private static int[] bestLaunchRounds = new int[0];
+
+    /**
+     * Method that will compute the arrival round of every launch round and the best launch round within the
+     * waiting window of every round
+     */
+    public static void initialize() {
+        OrbitPattern orbitPattern = Player.gc.orbitPattern();
+        arrivalRounds = new int[ROUND_LIMIT + 1];
+        bestLaunchRounds = new int[ROUND_LIMIT + 1];
+
+        for (int round = 1; round <= ROUND_LIMIT; round++) {
+            arrivalRounds[round] = round + (int)(orbitPattern.duration(round));
+        }
+
+        // Sliding window minimum over [round, round + MAX_WAIT_ROUNDS] clipped to the last launch round, filled from
+        // the last round backwards with a deque of rounds whose arrival rounds are increasing
+        int[] deque = new int[ROUND_LIMIT + 1];
+        int head = 0;
+        int tail = 0;
+        for (int round = ROUND_LIMIT; round >= 1; round--) {
+            if (round > LAST_LAUNCH_ROUND) {
+                bestLaunchRounds[round] = round;
+                continue;
+            }
+
+            while (tail > head && arrivalRounds[deque[tail - 1]] >= arrivalRounds[round]) {
+                tail--;
+            }
+            deque[tail++] = round;
+
+            while (deque[head] > round + MAX_WAIT_ROUNDS) {
+                head++;
+            }
+            bestLaunchRounds[round] = deque[head];
+        }
+    }
+
+    /**
+     * Gets the round a rocket launched on the given round would land on Mars, without research bonuses
+     * @param round The launch round
+     * @return The arrival round
+     */
+    public static int getArrivalRound(long round) {
+        return arrivalRounds[(int)(Math.min(round, ROUND_LIMIT))];
+    }
+
+    /**
+     * Gets the launch round within the waiting window that arrives on Mars first
+     * @param round The current round
+     * @return The best round to launch on
+     */
+    public static int getBestLaunchRound(long round) {
+        return bestLaunchRounds[(int)(Math.min(round, ROUND_LIMIT))];
+    }
+
+    /**
+     * Checks if a rocket should launch this round. A rocket under attack launches with whatever it has, a full
+     * rocket launches on the best round of its window or once it has waited the maximum number of rounds, and every
+     * loaded rocket launches before the flood
+     * @param round The current round
+     * @param garrisonSize The number of units in the rocket
+     * @param fullRound The round the rocket garrison became full, or -1 if it is not full
+     * @param isThreatened If the rocket took damage since the last round
+     * @return If the rocket should launch now
+     */
+    public static boolean shouldLaunch(long round, int garrisonSize, long fullRound, boolean isThreatened) {
+        if (garrisonSize == 0) {
+            return false;
+        }
+        if (isThreatened || round >= LAST_LAUNCH_ROUND) {
+            return true;
+        }
+        // The window slides every round, so the best round can keep moving back and the total wait is capped here
+        return fullRound != -1 && (getBestLaunchRound(round) <= round || round - fullRound >= MAX_WAIT_ROUNDS);
+    }
+}
@@ -3,7 +3,7 @@ import bc.*;
 public class Mage extends Attacker{
 
     public Mage(int id) {
-        super(id);
+        super(id, UnitType.Mage);
     }
 
     @Override
@@ -0,0 +1,104 @@
+import bc.*;
+
+/**
+ * Static terrain information for both planets, read once from the starting maps. Cells are addressed by a packed
+ * index of x + y * width so that per-cell data can be kept in flat primitive arrays
+ */
+public class MapGrid {
+
+    // Offsets of the eight move directions and the center in the same order as Direction.swigToEnum
+    public static final int[] DX = {0, 1, 1, 1, 0, -1, -1, -1, 0};
+    public static final int[] DY = {1, 1, 0, -1, -1, -1, 0, 1, 0};
+
+    private static final int[] widths = new int[2];
+    private static final int[] heights = new int[2];
+    private static final boolean[][] passable = new boolean[2][];
+
+    static {
+        loadPlanet(Planet.Earth);
+        loadPlanet(Planet.Mars);
+    }
+
+    /**
+     * Helper method that will read the size and passable terrain of a planet from its starting map
+     * @param planet The planet to load
+     */
+    private static void loadPlanet(Planet planet) {
+        PlanetMap planetMap = Player.gc.startingMap(planet);
+        int width = (int)(planetMap.getWidth());
+        int height = (int)(planetMap.getHeight());
+
+        boolean[] passableCells = new boolean[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                passableCells[x + y * width] = planetMap.isPassableTerrainAt(new MapLocation(planet, x, y)) > 0;
+            }
+        }
+
+        widths[planet.ordinal()] = width;
+        heights[planet.ordinal()] = height;
+        passable[planet.ordinal()] = passableCells;
+    }
+
+    public static int getWidth(Planet planet) {
+        return widths[planet.ordinal()];
+    }
+
+    public static int getHeight(Planet planet) {
+        return heights[planet.ordinal()];
+    }
+
+    public static int getCellCount(Planet planet) {
+        return widths[planet.ordinal()] * heights[planet.ordinal()];
+    }
+
+    public static boolean isOnMap(Planet planet, int x, int y) {
+        return x >= 0 && y >= 0 && x < widths[planet.ordinal()] && y < heights[planet.ordinal()];
+    }
+
+    public static boolean isPassable(Planet planet, int index) {
+        return passable[planet.ordinal()][index];
+    }
+
+    /**
+     * Gets the packed index of a location on its planet
+     * @param mapLocation The location to convert
+     * @return The packed index of the location
+     */
+    public static int toIndex(MapLocation mapLocation) {
+        return mapLocation.getX() + mapLocation.getY() * widths[mapLocation.getPlanet().ordinal()];
+    }
+
+    public static int toIndex(Planet planet, int x, int y) {
+        return x + y * widths[planet.ordinal()];
+    }
+
+    /**
+     * Converts a packed index back to a MapLocation
+     * @param planet The planet the index belongs to
+     * @param index The packed index
+     * @return The MapLocation of the index
+     */
+    public static MapLocation toLocation(Planet planet, int index) {
+        int width = widths[planet.ordinal()];
+        return new MapLocation(planet, index % width, index / width);
+    }
+
+    /**
+     * Gets the packed index of the neighbour of a cell in the given direction
+     * @param planet The planet of the cell
+     * @param index The packed index of the cell
+     * @param direction The swig value of the direction, 0 to 8
+     * @return The packed index of the neighbour or -1 if it is off the map
+     */
+    public static int getNeighbour(Planet planet, int index, int direction) {
+        int width = widths[planet.ordinal()];
+        int x = index % width + DX[direction];
+        int y = index / width + DY[direction];
+
+        if (!isOnMap(planet, x, y)) {
+            return -1;
+        }
+        return x + y * width;
+    }
+}
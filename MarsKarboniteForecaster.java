@@ -0,0 +1,155 @@
+import bc.*;
+
+import java.util.ArrayList;
+
+/**
+ * Forecast of the karbonite that asteroids will bring to Mars. The asteroid pattern is known at the start of the
+ * game, so the strikes are read once into a table ordered by round. The table adds each strike to the Mars
+ * karbonite map on the round it lands, sends idle Mars workers to strikes that are about to land, and gives the
+ * landing site planner the karbonite each cell will receive over the game.
+ */
+public class MarsKarboniteForecaster {
+
+    private static final Planet planet = Planet.Mars;
+    private static final int ROUND_LIMIT = 1000;
+
+    // Number of rounds before a strike lands that a worker is sent to wait for it
+    private static final int PREPOSITION_ROUNDS = 10;
+
+    private static int[] strikeCells = null;
+    private static int[] strikeAmounts;
+    private static int[] strikeRounds;
+    private static boolean[] isStrikeClaimed;
+    private static int strikeCount;
+
+    // Position in the strike table of the first strike on or after each round
+    private static int[] firstStrikeAtRound;
+
+    // Total karbonite each cell receives from asteroids over the whole game
+    private static int[] forecastKarbonite;
+
+    private static long lastAppliedRound = 0;
+
+    /**
+     * Method that will read every strike of the asteroid pattern into the table. Strikes on impassable cells are
+     * ignored since they cannot be harvested
+     */
+    private static void initialize() {
+        AsteroidPattern asteroidPattern = Player.gc.asteroidPattern();
+        int cellCount = MapGrid.getCellCount(planet);
+        forecastKarbonite = new int[cellCount];
+        firstStrikeAtRound = new int[ROUND_LIMIT + 2];
+
+        ArrayList<Integer> rounds = new ArrayList<>();
+        ArrayList<Integer> cells = new ArrayList<>();
+        ArrayList<Integer> amounts = new ArrayList<>();
+        for (int round = 1; round <= ROUND_LIMIT; round++) {
+            if (!asteroidPattern.hasAsteroid(round)) {
+                continue;
+            }
+
+            AsteroidStrike strike = asteroidPattern.asteroid(round);
+            int index = MapGrid.toIndex(strike.getLocation());
+            if (MapGrid.isPassable(planet, index)) {
+                rounds.add(round);
+                cells.add(index);
+                amounts.add((int)(strike.getKarbonite()));
+                forecastKarbonite[index] += (int)(strike.getKarbonite());
+            }
+        }
+
+        strikeCount = rounds.size();
+        strikeRounds = new int[strikeCount];
+        strikeCells = new int[strikeCount];
+        strikeAmounts = new int[strikeCount];
+        isStrikeClaimed = new boolean[strikeCount];
+        for (int i = 0; i < strikeCount; i++) {
+            strikeRounds[i] = rounds.get(i);
+            strikeCells[i] = cells.get(i);
+            strikeAmounts[i] = amounts.get(i);
+        }
+
+        int position = strikeCount;
+        for (int round = ROUND_LIMIT + 1; round >= 0; round--) {
+            while (position > 0 && strikeRounds[position - 1] >= round) {
+                position--;
+            }
+            firstStrikeAtRound[round] = position;
+        }
+    }
+
+    /**
+     * Gets the total karbonite a cell of Mars will receive from asteroids over the game
+     * @param index The packed index of the cell
+     * @return The forecast karbonite
+     */
+    public static int getForecastKarbonite(int index) {
+        if (strikeCells == null) {
+            initialize();
+        }
+        return forecastKarbonite[index];
+    }
+
+    /**
+     * Method that will add the strikes that landed since the last call to the karbonite map. Called once a round
+     * on Mars before the mining planner runs
+     * @param karboniteMap The karbonite map of Mars
+     */
+    public static void applyStrikes(KarboniteMap karboniteMap) {
+        if (strikeCells == null) {
+            initialize();
+        }
+
+        long round = Math.min(Player.gc.round(), ROUND_LIMIT);
+        for (int i = firstStrikeAtRound[(int)(lastAppliedRound) + 1]; i < strikeCount && strikeRounds[i] <= round; i++) {
+            karboniteMap.addKarbonite(strikeCells[i], strikeAmounts[i]);
+        }
+        lastAppliedRound = round;
+    }
+
+    /**
+     * Method that will send the nearest idle worker to each strike landing in the next few rounds, so that it is
+     * waiting next to the karbonite when it lands. Each strike is only given one worker
+     * @param units The unit registry of Mars
+     * @param miningPlanner The mining planner of Mars, used to skip workers that already have a deposit
+     */
+    public static void prepositionWorkers(UnitRegistry units, MiningPlanner miningPlanner) {
+        if (strikeCells == null) {
+            initialize();
+        }
+
+        int round = (int)(Math.min(Player.gc.round(), ROUND_LIMIT));
+        int width = MapGrid.getWidth(planet);
+        for (int i = firstStrikeAtRound[round + 1]; i < strikeCount && strikeRounds[i] <= round + PREPOSITION_ROUNDS; i++) {
+            if (isStrikeClaimed[i]) {
+                continue;
+            }
+
+            int strikeX = strikeCells[i] % width;
+            int strikeY = strikeCells[i] / width;
+            int bestWorkerId = -1;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int workerId = units.nextId(UnitGroup.WORKER, 0); workerId != -1; workerId = units.nextId(UnitGroup.WORKER, workerId + 1)) {
+                if (!RoundSnapshot.isOnMap(workerId) || units.get(UnitGroup.WORKER, workerId).hasTasks() ||
+                        miningPlanner.hasReservation(workerId)) {
+                    continue;
+                }
+
+                int distance = Math.max(Math.abs(RoundSnapshot.getX(workerId) - strikeX), Math.abs(RoundSnapshot.getY(workerId) - strikeY));
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    bestWorkerId = workerId;
+                }
+            }
+
+            if (bestWorkerId == -1) {
+                return;
+            }
+
+            isStrikeClaimed[i] = true;
+            MapLocation strikeLocation = MapGrid.toLocation(planet, strikeCells[i]);
+            units.get(UnitGroup.WORKER, bestWorkerId).addTaskToQueue(new RobotTask(-1, Command.MOVE, strikeLocation));
+            // System.out.println("Worker: " + bestWorkerId + " waiting for asteroid at " + Player.locationToString(strikeLocation));
+        }
+    }
+}
@@ -0,0 +1,259 @@
+import bc.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Central planner that matches idle workers to karbonite deposits once per round. Each deposit can only take as
+ * many workers as its remaining karbonite can keep busy, so workers spread out instead of converging on the same
+ * deposit. Reserved deposits are kept until the deposit is empty or the worker is given another task.
+ */
+public class MiningPlanner {
+
+    // Number of rounds of harvesting a worker assigned to a deposit is expected to spend there
+    private static final int MINING_HORIZON = 10;
+    private static final int MAX_WORKERS_PER_DEPOSIT = 3;
+
+    // How many moves further than its nearest deposit a worker will be sent
+    private static final int SEARCH_SLACK = 6;
+
+    // Number of the nearest open deposits each worker is paired with
+    private static final int MAX_PAIRS_PER_WORKER = 24;
+
+    private final KarboniteMap karboniteMap;
+    private final int[] reservedCount;
+    private final HashMap<Integer, Integer> reservedDeposits;
+
+    private long[] candidatePairs;
+    private int[] pairWorkerIds;
+    private int[] pairDeposits;
+
+    // Breadth first search state of the walks from each worker, reused between searches
+    private final int[] searchDistance;
+    private final int[] visitedStamp;
+    private final int[] frontier;
+    private int searchStamp;
+
+    public MiningPlanner(KarboniteMap karboniteMap) {
+        int cellCount = MapGrid.getCellCount(karboniteMap.getPlanet());
+        this.karboniteMap = karboniteMap;
+        this.reservedCount = new int[cellCount];
+        this.reservedDeposits = new HashMap<>();
+        this.candidatePairs = new long[0];
+        this.pairWorkerIds = new int[0];
+        this.pairDeposits = new int[0];
+        this.searchDistance = new int[cellCount];
+        this.visitedStamp = new int[cellCount];
+        this.frontier = new int[cellCount];
+        this.searchStamp = 0;
+    }
+
+    /**
+     * Checks if the worker is currently holding a deposit. A worker that is holding a deposit and has no tasks is
+     * mining and should not wander off
+     * @param workerId The id of the worker
+     * @return If the worker has a reserved deposit
+     */
+    public boolean hasReservation(int workerId) {
+        return reservedDeposits.containsKey(workerId);
+    }
+
+    /**
+     * Method that will give back the deposit a worker was holding, such as when it is given a global task
+     * @param workerId The id of the worker
+     */
+    public void releaseWorker(int workerId) {
+        Integer depositIndex = reservedDeposits.remove(workerId);
+        if (depositIndex != null) {
+            reservedCount[depositIndex]--;
+        }
+    }
+
+    /**
+     * Method that will release stale reservations and then assign every idle worker in the given map to a
+     * deposit with free capacity, using a greedy minimum cost matching on walking distance.
+     * @param units The unit registry of this planet
+     */
+    public void planRound(UnitRegistry units) {
+        releaseReservations(units);
+
+        if (karboniteMap.getDepositCount() == 0) {
+            return;
+        }
+
+        int harvestAmount = -1;
+        ArrayList<Integer> idleWorkers = new ArrayList<>();
+        for (int workerId = units.nextId(UnitGroup.WORKER, 0); workerId != -1; workerId = units.nextId(UnitGroup.WORKER, workerId + 1)) {
+            if (!units.get(UnitGroup.WORKER, workerId).hasTasks() && !reservedDeposits.containsKey(workerId)) {
+                idleWorkers.add(workerId);
+                harvestAmount = UnitStats.getHarvestAmount(workerId);
+            }
+        }
+
+        if (idleWorkers.isEmpty()) {
+            return;
+        }
+
+        int pairCount = findCandidatePairs(units, idleWorkers, harvestAmount);
+        Arrays.sort(candidatePairs, 0, pairCount);
+
+        HashSet<Integer> assignedWorkers = new HashSet<>();
+        for (int i = 0; i < pairCount && assignedWorkers.size() < idleWorkers.size(); i++) {
+            int pairIndex = (int)(candidatePairs[i] & 0xFFFFFFFFL);
+            int workerId = pairWorkerIds[pairIndex];
+            int depositIndex = pairDeposits[pairIndex];
+
+            if (assignedWorkers.contains(workerId) ||
+                    reservedCount[depositIndex] >= getDepositSlots(depositIndex, harvestAmount)) {
+                continue;
+            }
+
+            assignedWorkers.add(workerId);
+            reservedDeposits.put(workerId, depositIndex);
+            reservedCount[depositIndex]++;
+
+            MapLocation depositLocation = MapGrid.toLocation(karboniteMap.getPlanet(), depositIndex);
+            units.get(UnitGroup.WORKER, workerId).addTaskToQueue(new RobotTask(-1, Command.MOVE, depositLocation));
+        }
+    }
+
+    /**
+     * Helper method that will build the list of worker and deposit pairs worth considering. A breadth first search
+     * over the passable terrain is run from every worker, bounded to SEARCH_SLACK moves further than its nearest
+     * deposit from the distance field, and the worker is paired with the nearest open deposits it walks past.
+     * @param units The unit registry of this planet
+     * @param idleWorkers The ids of the workers that need a deposit
+     * @param harvestAmount The amount a worker harvests per round
+     * @return The number of pairs found
+     */
+    private int findCandidatePairs(UnitRegistry units, ArrayList<Integer> idleWorkers, int harvestAmount) {
+        int maxPairs = idleWorkers.size() * Math.min(MAX_PAIRS_PER_WORKER, karboniteMap.getDepositCount());
+        if (candidatePairs.length < maxPairs) {
+            candidatePairs = new long[maxPairs];
+            pairWorkerIds = new int[maxPairs];
+            pairDeposits = new int[maxPairs];
+        }
+
+        int pairCount = 0;
+        for (int workerId: idleWorkers) {
+            int workerIndex = MapGrid.toIndex(units.get(UnitGroup.WORKER, workerId).getLocation());
+
+            int nearestDistance = karboniteMap.getDistance(workerIndex);
+            if (nearestDistance == KarboniteMap.UNREACHABLE) {
+                continue;
+            }
+
+            pairCount = addWorkerPairs(workerId, workerIndex, nearestDistance + SEARCH_SLACK, harvestAmount, pairCount);
+        }
+
+        return pairCount;
+    }
+
+    /**
+     * Helper method that will walk out from a worker one move at a time and pair it with every open deposit it
+     * reaches, nearest first, until it has MAX_PAIRS_PER_WORKER pairs or the search reaches the maximum distance
+     * @param workerId The id of the worker
+     * @param workerIndex The packed index of the cell of the worker
+     * @param maxDistance The most moves a deposit can be from the worker
+     * @param harvestAmount The amount a worker harvests per round
+     * @param pairCount The number of pairs found so far
+     * @return The number of pairs found including the pairs of this worker
+     */
+    private int addWorkerPairs(int workerId, int workerIndex, int maxDistance, int harvestAmount, int pairCount) {
+        Planet planet = karboniteMap.getPlanet();
+        searchStamp++;
+        int head = 0;
+        int tail = 0;
+        visitedStamp[workerIndex] = searchStamp;
+        searchDistance[workerIndex] = 0;
+        frontier[tail++] = workerIndex;
+
+        int workerPairs = 0;
+        while (head < tail && workerPairs < MAX_PAIRS_PER_WORKER) {
+            int currentIndex = frontier[head++];
+            int moves = searchDistance[currentIndex];
+
+            if (karboniteMap.getKarbonite(currentIndex) > 0 &&
+                    reservedCount[currentIndex] < getDepositSlots(currentIndex, harvestAmount)) {
+                candidatePairs[pairCount] = ((long)moves << 32) | pairCount;
+                pairWorkerIds[pairCount] = workerId;
+                pairDeposits[pairCount] = currentIndex;
+                pairCount++;
+                workerPairs++;
+            }
+
+            if (moves == maxDistance) {
+                continue;
+            }
+            for (int direction = 0; direction < 8; direction++) {
+                int neighbour = MapGrid.getNeighbour(planet, currentIndex, direction);
+                if (neighbour != -1 && visitedStamp[neighbour] != searchStamp && MapGrid.isPassable(planet, neighbour)) {
+                    visitedStamp[neighbour] = searchStamp;
+                    searchDistance[neighbour] = moves + 1;
+                    frontier[tail++] = neighbour;
+                }
+            }
+        }
+
+        return pairCount;
+    }
+
+    /**
+     * Gets the number of workers a deposit can keep busy for the mining horizon
+     * @param depositIndex The packed index of the deposit
+     * @param harvestAmount The amount a worker harvests per round
+     * @return The number of workers the deposit can take
+     */
+    private int getDepositSlots(int depositIndex, int harvestAmount) {
+        int workerTurns = (karboniteMap.getKarbonite(depositIndex) + harvestAmount - 1) / harvestAmount;
+        return Math.min(MAX_WORKERS_PER_DEPOSIT, (workerTurns + MINING_HORIZON - 1) / MINING_HORIZON);
+    }
+
+    /**
+     * Helper method that will release the reservations of workers that died, emptied their deposit, or have
+     * since been given a task other than moving to the deposit
+     * @param units The unit registry of this planet
+     */
+    private void releaseReservations(UnitRegistry units) {
+        Iterator<Map.Entry<Integer, Integer>> iterator = reservedDeposits.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Integer> reservation = iterator.next();
+            UnitInstance worker = units.get(UnitGroup.WORKER, reservation.getKey());
+            int depositIndex = reservation.getValue();
+
+            if (worker == null || karboniteMap.getKarbonite(depositIndex) <= 0 || !isMiningTask(worker, depositIndex)) {
+                reservedCount[depositIndex]--;
+                iterator.remove();
+
+                // Drop the move task as well if the deposit it was heading to is gone
+                if (worker != null && worker.hasTasks() && isMiningTask(worker, depositIndex)) {
+                    worker.pollCurrentTask();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if the worker is either mining next to the given deposit or still moving to it
+     * @param worker The worker to check
+     * @param depositIndex The packed index of the deposit
+     * @return If the worker is still working the deposit
+     */
+    private boolean isMiningTask(UnitInstance worker, int depositIndex) {
+        if (!worker.hasTasks()) {
+            MapLocation workerLocation = worker.getLocation();
+            int width = MapGrid.getWidth(karboniteMap.getPlanet());
+            return Math.abs(depositIndex % width - workerLocation.getX()) <= 1 &&
+                    Math.abs(depositIndex / width - workerLocation.getY()) <= 1;
+        }
+
+        RobotTask currentTask = worker.getCurrentTask();
+        return currentTask.getTaskId() == -1 && currentTask.getCommand() == Command.MOVE &&
+                currentTask.getCommandLocation() != null &&
+                MapGrid.toIndex(currentTask.getCommandLocation()) == depositIndex;
+    }
+}
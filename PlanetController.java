@@ -0,0 +1,316 @@
+import bc.*;
+
+/**
+ * Execution engine shared by both planets. Owns the unit registry, terrain analysis, karbonite map, mining
+ * planner and global task system of one planet and runs the units of that planet each round. Earth and Mars
+ * each keep one instance and add their own planet specific steps around it.
+ */
+public class PlanetController implements UnitLifecycleListener {
+
+    private final Planet planet;
+    private final UnitRegistry units;
+    private final ChokeAnalysis chokeAnalysis;
+    private final StructureSiteIndex structureSites;
+    private final KarboniteMap karboniteMap;
+    private final MiningPlanner miningPlanner;
+    private final TaskRegistry taskRegistry;
+    private final TaskMatcher taskMatcher;
+    private final GlobalTaskScheduler taskScheduler;
+    private final RocketLoadingCoordinator loadingCoordinator;
+    private final AttackObjectiveManager objectiveManager;
+    private final SquadManager squadManager;
+    private final AlertService alertService;
+
+    public PlanetController(Planet planet) {
+        this.planet = planet;
+        this.units = new UnitRegistry();
+        this.chokeAnalysis = new ChokeAnalysis(planet);
+        this.structureSites = new StructureSiteIndex(planet, chokeAnalysis);
+        this.karboniteMap = new KarboniteMap(planet);
+        this.miningPlanner = new MiningPlanner(karboniteMap);
+        this.taskRegistry = new TaskRegistry(planet);
+        this.taskMatcher = new TaskMatcher(planet, units);
+        this.taskScheduler = new GlobalTaskScheduler(this);
+        this.loadingCoordinator = new RocketLoadingCoordinator(planet, units);
+        this.objectiveManager = new AttackObjectiveManager(planet, units, chokeAnalysis);
+        this.squadManager = new SquadManager(planet, units, objectiveManager);
+        this.alertService = new AlertService(planet, units);
+    }
+
+    public Planet getPlanet() {
+        return planet;
+    }
+
+    public UnitRegistry getUnits() {
+        return units;
+    }
+
+    public ChokeAnalysis getChokeAnalysis() {
+        return chokeAnalysis;
+    }
+
+    public StructureSiteIndex getStructureSites() {
+        return structureSites;
+    }
+
+    public KarboniteMap getKarboniteMap() {
+        return karboniteMap;
+    }
+
+    public MiningPlanner getMiningPlanner() {
+        return miningPlanner;
+    }
+
+    public TaskRegistry getTaskRegistry() {
+        return taskRegistry;
+    }
+
+    public TaskMatcher getTaskMatcher() {
+        return taskMatcher;
+    }
+
+    public GlobalTaskScheduler getTaskScheduler() {
+        return taskScheduler;
+    }
+
+    public RocketLoadingCoordinator getLoadingCoordinator() {
+        return loadingCoordinator;
+    }
+
+    public AttackObjectiveManager getObjectiveManager() {
+        return objectiveManager;
+    }
+
+    public SquadManager getSquadManager() {
+        return squadManager;
+    }
+
+    public AlertService getAlertService() {
+        return alertService;
+    }
+
+    /**
+     * Method that will update the per round caches of the planet. Called at the start of the round before any
+     * planet specific planning
+     */
+    public void beginRound() {
+        WorkerCluster.update(units);
+        karboniteMap.updateFromSensing();
+    }
+
+    /**
+     * Method that will assign the global tasks, deposits, attack objectives and squads, run every unit on the
+     * planet, and then apply the staging and garrison changes made during the round
+     */
+    public void runRound() {
+        taskRegistry.retireCompletedTasks();
+        taskScheduler.assignTasks();
+        miningPlanner.planRound(units);
+        objectiveManager.update();
+        squadManager.update();
+
+        loadingCoordinator.loadRockets();
+        runRocketGroup();
+
+        runUnitGroup(UnitGroup.WORKER);
+        runUnitGroup(UnitGroup.ATTACKER);
+        alertService.deliverAlerts();
+        runUnitGroup(UnitGroup.FACTORY);
+
+        units.endRound();
+    }
+
+    /**
+     * This method will be called when a factory or blueprint want to be constructed. This method will help
+     * choose the location of the structure and add it to the global task list
+     * @param command The command of the task that you want to be added to the global list
+     * @param rocketLocation The location of the rocket if the task is to load it
+     */
+    public void createGlobalTask(Command command, MapLocation rocketLocation) {
+        if (command == Command.LOAD_ROCKET) {
+            // System.out.println("Creating new global task for loading rocket at " + Player.locationToString(rocketLocation));
+
+            taskScheduler.addTask(new GlobalTask(Command.LOAD_ROCKET, rocketLocation));
+
+        } else {
+            taskScheduler.addTask(new GlobalTask(command, null));
+        }
+    }
+
+    /**
+     * Counts the structure tasks of the given command that have not been blueprinted yet. A task that has lost all
+     * its workers is left out, so it does not hold back new structures while it waits for workers
+     * @param command The command of the tasks to count
+     * @return The number of tasks waiting to be blueprinted
+     */
+    public int countUnblueprintedTasks(Command command) {
+        int taskCount = 0;
+        for (GlobalTask globalTask: taskRegistry.getActiveTasks()) {
+            if (globalTask.getCommand() == command && !globalTask.hasBlueprinted() && !hasLostAllWorkers(globalTask)) {
+                taskCount++;
+            }
+        }
+
+        for (GlobalTask globalTask: taskScheduler.getPendingTasks()) {
+            if (globalTask.getCommand() == command && !taskRegistry.isRegistered(globalTask)) {
+                taskCount++;
+            }
+        }
+
+        return taskCount;
+    }
+
+    /**
+     * Helper method that will check if a task had workers assigned to it and all of them died or were taken off it
+     * @param globalTask The global task to check
+     * @return If the task has no workers left
+     */
+    private static boolean hasLostAllWorkers(GlobalTask globalTask) {
+        return globalTask.getState() == TaskState.ASSIGNED && globalTask.getUnitsOnTask().isEmpty();
+    }
+
+    /**
+     * Method that will make sure a task has a location and is in the task registry before units are assigned to it.
+     * Construction tasks are given a structure site the first time they are scheduled
+     * @param globalTask The global task about to be assigned
+     * @return If the task has a location and units can be assigned to it
+     */
+    public boolean prepareTaskLocation(GlobalTask globalTask) {
+        if (taskRegistry.isRegistered(globalTask)) {
+            return true;
+        }
+        if (globalTask.getState() == TaskState.CLOSED) {
+            return false;
+        }
+
+        MapLocation globalTaskLocation = globalTask.getTaskLocation();
+        boolean isNewSite = globalTaskLocation == null;
+        if (isNewSite) {
+            globalTaskLocation = pickStructureLocation();
+            if (globalTaskLocation == null) {
+                return false;
+            }
+        }
+
+        // Checks if the location is already being used for another task. If it is, try again next round
+        if (taskRegistry.isLocationTaken(globalTaskLocation)) {
+            return false;
+        }
+
+        // The site is only reserved once the task is sure to take it, so a site that is rejected is not leaked
+        if (isNewSite) {
+            structureSites.addStructure(globalTaskLocation);
+        }
+
+        // System.out.println("Picked location: " + globalTaskLocation + " for task: " + globalTask.getCommand());
+        globalTask.setTaskLocation(globalTaskLocation);
+
+        taskRegistry.register(globalTask);
+        // System.out.println("Adding task: " + globalTask.getTaskId() + " to the registry!");
+        return true;
+    }
+
+    /**
+     * Method that will pick the best MapLocation to build a structure. Looks for the best site in the structure
+     * site index nearest to the best worker. The site is not reserved here
+     * @return The MapLocation of the best place to build a structure or null if no locations exist.
+     */
+    private MapLocation pickStructureLocation() {
+        int workerId = WorkerCluster.getBestWorkerId();
+        if (workerId == -1) {
+            return null;
+        }
+
+        MapLocation startingLocation = units.get(UnitGroup.WORKER, workerId).getLocation();
+
+        MapLocation siteLocation = structureSites.pickSite(startingLocation, true);
+
+        // If there are no sites far enough away from the enemy, just pick a location
+        if (siteLocation == null) {
+            siteLocation = structureSites.pickSite(startingLocation, false);
+        }
+        return siteLocation;
+    }
+
+    /**
+     * Update and remove launched rocket. Needs to be specific to for rockets because of their unique functionality
+     */
+    private void runRocketGroup() {
+
+        // Loops through and checks if the rocket can take off. If it takes off, remove it from the registry
+        for (int rocketId = units.nextId(UnitGroup.ROCKET, 0); rocketId != -1; rocketId = units.nextId(UnitGroup.ROCKET, rocketId + 1)) {
+            Rocket rocket = units.getRocket(rocketId);
+            rocket.run();
+            if (rocket.isInFlight()) {
+                units.remove(rocketId);
+            }
+        }
+    }
+
+    /**
+     * That that will run the execute() command for all the units in the given group
+     * @param unitGroup The group of units
+     */
+    private void runUnitGroup(UnitGroup unitGroup) {
+        for (int unitId = units.nextId(unitGroup, 0); unitId != -1; unitId = units.nextId(unitGroup, unitId + 1)) {
+            units.get(unitGroup, unitId).run();
+        }
+    }
+
+    @Override
+    public void onUnitSpawned(int unitId, UnitType unitType) {
+    }
+
+    @Override
+    public void onUnitDied(int unitId, UnitType unitType) {
+
+        // A destroyed structure gives its site back. The snapshot still holds the last location of the structure
+        if ((unitType == UnitType.Factory && units.contains(UnitGroup.FACTORY, unitId)) ||
+                (unitType == UnitType.Rocket && units.contains(UnitGroup.ROCKET, unitId))) {
+            MapLocation structureLocation = new MapLocation(planet, RoundSnapshot.getX(unitId), RoundSnapshot.getY(unitId));
+            structureSites.removeStructure(structureLocation);
+
+            // A rocket destroyed before launch ends its loading task like a launch does, so its units stop waiting
+            if (unitType == UnitType.Rocket) {
+                GlobalTask loadTask = taskRegistry.getTaskAt(structureLocation);
+                if (loadTask != null && loadTask.getCommand() == Command.LOAD_ROCKET) {
+                    taskRegistry.retire(loadTask);
+                }
+                loadingCoordinator.releaseRocket(structureLocation);
+            }
+        }
+        removeUnit(unitId);
+    }
+
+    @Override
+    public void onUnitGarrisoned(int unitId, UnitType unitType) {
+        removeUnit(unitId);
+    }
+
+    @Override
+    public void onUnitLaunched(int unitId, UnitType unitType) {
+        removeUnit(unitId);
+    }
+
+    /**
+     * Helper method that will remove a unit that died, was loaded into a structure, or launched from the registry. If
+     * the unit was part of a global task, it is also removed from that task
+     * @param unitId The id of the unit
+     */
+    private void removeUnit(int unitId) {
+        UnitInstance unit = units.remove(unitId);
+        if (unit == null) {
+            return;
+        }
+
+        // System.out.println("Removing unit: " + unitId);
+        loadingCoordinator.releaseUnit(unitId);
+        if (unit.getCurrentTask() != null && unit.getCurrentTask().getTaskId() != -1) {
+            GlobalTask globalTask = taskRegistry.getTask(unit.getCurrentTask().getTaskId());
+            // System.out.println("Removing unit from task: " + unit.getCurrentTask().getTaskId());
+            if (globalTask != null) {
+                globalTask.removeWorkerFromList(unitId);
+            }
+        }
+    }
+}
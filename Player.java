@@ -4,11 +4,11 @@ import java.util.*;
 
 public class Player {
 
-    private static final int NUMBER_OF_LOCATIONS_TO_CHECK = 200;
     private static int BUILD_ROUND;
 
     public static final GameController gc = new GameController();
     public static final Team team = gc.team();
+    public static final Planet planet = gc.planet();
     public static ArrayList<MapLocation> enemyStartingLocations = new ArrayList<>();
 
 
@@ -17,10 +17,30 @@ public class Player {
 
         addStartingWorkersToEarthMap();
         storeEnemyLocations(false);
-        queueUnitResearch();
         getBuildRound();
 
+        UnitLifecycleTracker.addListener(getController());
+
         while (true) {
+
+            // The per round passes that run before the planet executes are guarded like Earth.execute so one failed
+            // call does not end the player
+            try {
+                RoundSnapshot.update();
+                UnitLifecycleTracker.update();
+                EnemyMemory.update();
+                UnitStats.updateResearchLevels();
+
+                if (gc.planet() == Planet.Earth) {
+                    ResearchPlanner.update();
+                    if (gc.round() >= BUILD_ROUND) {
+                        queueFactoryTasks();
+                    }
+                }
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+
             if (gc.round() % 2 == 0) {
                 System.runFinalization();
                 System.gc();
@@ -30,25 +50,19 @@ public class Player {
                 // System.out.println("Time left: " + gc.getTimeLeftMs());
                 // System.out.println("Karbonite: " + gc.karbonite());
 
-                if (gc.round() == 1) {
-                    Earth.createGlobalTask(Command.CONSTRUCT_FACTORY, null);
-                    Earth.createGlobalTask(Command.CONSTRUCT_FACTORY, null);
-                    Earth.createGlobalTask(Command.CONSTRUCT_FACTORY, null);
-                }
-
                 if (gc.round() == 100) {
                     storeEnemyLocations(true);
                 }
 //
-//                if (gc.round() >= 500 && gc.round() % 50 == 0 && Earth.earthWorkerMap.size() > 0) {
-//                    Earth.createGlobalTask(Command.CONSTRUCT_FACTORY, null);
+//                if (gc.round() >= 500 && gc.round() % 50 == 0 && Earth.earthController.getUnits().size(UnitGroup.WORKER) > 0) {
+//                    Earth.earthController.createGlobalTask(Command.CONSTRUCT_FACTORY, null);
 //                }
-//                if (gc.round() < 470 && Earth.earthWorkerMap.size() == 0) {
+//                if (gc.round() < 470 && Earth.earthController.getUnits().size(UnitGroup.WORKER) == 0) {
 //                    VecUnit units = gc.myUnits();
 //                    for (int i = 0; i < units.size(); i++) {
 //                        if (units.get(i).unitType() == UnitType.Factory) {
 //                            int factoryId = units.get(i).id();
-//                            Factory factory = (Factory)Earth.earthFactoryMap.get(factoryId);
+//                            Factory factory = (Factory)Earth.earthController.getUnits().get(UnitGroup.FACTORY, factoryId);
 //                            factory.emergencyRun();
 //                        }
 //                    }
@@ -70,7 +84,7 @@ public class Player {
 
     /**
      * Method that will get the starting locations of all the enemy workers created when the game has started
-     * and will store them in the earth attack queue and the initial enemy locations array list
+     * and will store them as attack objectives on Earth or in the initial enemy locations array list
      */
     private static void storeEnemyLocations(boolean addLocationToAttackMap) {
         VecUnit startingUnits = gc.startingMap(Planet.Earth).getInitial_units();
@@ -79,7 +93,8 @@ public class Player {
             Unit startingUnit = startingUnits.get(i);
             if (startingUnit.team() != Player.team) {
                 if (addLocationToAttackMap) {
-                    Earth.earthMainAttackStack.push(startingUnit.location().mapLocation());
+                    Earth.earthController.getObjectiveManager().reportEnemy(startingUnit.location().mapLocation(),
+                            AttackObjectiveManager.STARTING_LOCATION_SCORE);
                 } else {
                     enemyStartingLocations.add(startingUnit.location().mapLocation());
                 }
@@ -88,24 +103,29 @@ public class Player {
     }
 
     /**
-     * Helper that will queue all unit research
+     * Looks at how much karbonite is around you to determine when to clone and when to start building factories
      */
-    private static void queueUnitResearch() {
-        gc.queueResearch(UnitType.Knight);
-        gc.queueResearch(UnitType.Healer);
-        gc.queueResearch(UnitType.Knight);
-        gc.queueResearch(UnitType.Healer);
-        gc.queueResearch(UnitType.Knight);
-        gc.queueResearch(UnitType.Healer);
+    private static void getBuildRound() {
+        if (planet != Planet.Earth) {
+            return;
+        }
+
+        EconomyModel.initialize();
+        LaunchPlanner.initialize();
+        ResearchPlanner.initialize();
+        BUILD_ROUND = Math.max(1, EconomyModel.getFirstAffordableRound() - EconomyModel.FACTORY_LEAD_ROUNDS);
     }
 
     /**
-     * Looks at how much karbonite is around you to determine when to clone and when to start building factories
+     * Creates a new factory task when the economy model says another factory can be kept busy and its cost will
+     * be covered by the time workers reach the site. Only one factory waits for a blueprint at a time
      */
-    private static void getBuildRound() {
-        PlanetMap map = gc.startingMap(Planet.Earth);
-
-        int maxKarbonite = 0;
+    private static void queueFactoryTasks() {
+        int pendingFactories = Earth.earthController.countUnblueprintedTasks(Command.CONSTRUCT_FACTORY);
+        if (pendingFactories == 0 && Earth.earthController.getUnits().size(UnitGroup.FACTORY) < EconomyModel.getFactoryTarget() &&
+                EconomyModel.canAffordWithin(EconomyModel.FACTORY_COST, EconomyModel.FACTORY_LEAD_ROUNDS)) {
+            Earth.earthController.createGlobalTask(Command.CONSTRUCT_FACTORY, null);
+        }
     }
 
     /**
@@ -151,7 +171,7 @@ public class Player {
     }
 
     /**
-     * Method that will add all the workers on earth to the HashMap of workers at the beginning of the game
+     * Method that will add all the workers on earth to the unit registry at the beginning of the game
      */
     private static void addStartingWorkersToEarthMap() {
         VecUnit units = gc.myUnits();
@@ -159,7 +179,7 @@ public class Player {
             int unitId = units.get(i).id();
             UnitInstance worker = new Worker(unitId);
 
-            Earth.earthWorkerMap.put(unitId, worker);
+            Earth.earthController.getUnits().add(UnitGroup.WORKER, worker);
         }
     }
 
@@ -241,167 +261,41 @@ public class Player {
     }
 
     /**
-     * Temp helper method that will get a location on mars for the rocket to land
-     * @return The location the rocket can land
+     * Checks if location will ever be accessible from the start location using the region ids of the choke
+     * analysis. Does not consider units as obstacles
+     * @param startLocation the location to start search from
+     * @param destination the destination location
+     * @return if the destination is accessible
      */
-    public static MapLocation getRandomLocationToLandOnMars() {
-        PlanetMap map = gc.startingMap(Planet.Mars);
-        int width = (int)(map.getWidth());
-        int height = (int)(map.getHeight());
-        while (true) {
-            int randomX = (int)(Math.random() * width);
-            int randomY = (int)(Math.random() * height);
-
-            MapLocation landingLocation = new MapLocation(Planet.Mars, randomX, randomY);
-            boolean isClear = true;
-
-            for (Direction direction : Direction.values()) {
-                if (Player.isLocationEmpty(landingLocation.add(direction))) {
-                    isClear = false;
-                    break;
-                }
-            }
-            if (isClear) {
-                return landingLocation;
-            }
-
-        }
+    public static boolean isLocationAccessible(MapLocation startLocation, MapLocation destination) {
+        return getChokeAnalysis(startLocation.getPlanet()).canReach(MapGrid.toIndex(startLocation), MapGrid.toIndex(destination));
     }
 
     /**
-     * Finds the nearest units to a given task that are not already on the task
-     * @param globalTask The global task of that is requesting units
-     * @return The list of closest idle workers to add to the global task
+     * Gets the number of cells that can be reached from the start location, not counting structures
+     * @param startLocation The location to start from
+     * @return The size of the region the location is in
      */
-    public static ArrayList<Integer> getNearestFriendlyUnit(GlobalTask globalTask, boolean isWorker, int numberRequested) {
-
-        HashMap<String, Integer> unitLocations = new HashMap<>();
-        if (isWorker) {
-            for (int unitId: Earth.earthWorkerMap.keySet()) {
-                unitLocations.put(locationToString(Earth.earthWorkerMap.get(unitId).getLocation()), unitId);
-            }
-        } else {
-            for (int unitId: Earth.earthAttackerMap.keySet()) {
-                unitLocations.put(locationToString(Earth.earthAttackerMap.get(unitId).getLocation()), unitId);
-            }
-        }
-
-        // Compile the list of units already on the task and remove them from the unitLocations list. Check if the
-        // Unit is not in a garrison before removing its location
-        for (int unitId: globalTask.getUnitsOnTask()) {
-            if (!gc.unit(unitId).location().isInGarrison()) {
-
-                MapLocation unitLocation = Player.gc.unit(unitId).location().mapLocation();
-                if (unitLocations.containsKey(locationToString(unitLocation))) {
-                    unitLocations.remove(locationToString(unitLocation));
-                }
-            }
-        }
-
-        MapLocation centerLocation = globalTask.getTaskLocation();
-        Queue<MapLocation> frontier = new LinkedList<>();
-        frontier.add(centerLocation);
-
-        HashSet<String> checkedLocations = new HashSet<>();
-        checkedLocations.add(locationToString(centerLocation));
-
-        // Initializes the list of closest units and will check if there is a unit at the spot of the task
-        // Because we automatically add that into the checked locations list
-        ArrayList<Integer> closestUnitIds = new ArrayList<>();
-        PlanetMap planetMap = gc.startingMap(centerLocation.getPlanet());
-        if (unitLocations.containsKey(locationToString(centerLocation))) {
-            closestUnitIds.add(unitLocations.get(locationToString(centerLocation)));
-        }
-
-        int moveRadius = 0;
-        while (!frontier.isEmpty() && moveRadius < NUMBER_OF_LOCATIONS_TO_CHECK) {
-            MapLocation currentLocation = frontier.poll();
-
-            for (Direction nextDirection : getMoveDirections()) {
-                MapLocation nextMapLocation = currentLocation.add(nextDirection);
-                String nextLocation = locationToString(nextMapLocation);
-
-                if (planetMap.onMap(nextMapLocation) && !checkedLocations.contains(nextLocation)) {
-                    checkedLocations.add(nextLocation);
-                    frontier.add(nextMapLocation);
-
-                    if (unitLocations.containsKey(nextLocation)) {
-                        closestUnitIds.add(unitLocations.get(nextLocation));
-
-                        if (closestUnitIds.size() == numberRequested) {
-                            return closestUnitIds;
-                        }
-                    }
-                }
-            }
-
-            moveRadius++;
-        }
-
-        return closestUnitIds;
+    public static int getPassableArea(MapLocation startLocation) {
+        ChokeAnalysis chokeAnalysis = getChokeAnalysis(startLocation.getPlanet());
+        return chokeAnalysis.getComponentSize(chokeAnalysis.getComponent(MapGrid.toIndex(startLocation)));
     }
 
     /**
-     * Utilizes breadth first search algorithm to check if location will ever be accesible, does not consider units as obstacles
-     * @param startLocation the location to start search from
-     * @param destination the destination location
-     * @return if the destination is accessible
+     * Gets the controller of the planet this player is running on
+     * @return The planet controller
      */
-    public static boolean isLocationAccessible(MapLocation startLocation, MapLocation destination) {
-        Queue<MapLocation> frontier = new LinkedList<>();
-        frontier.add(startLocation);
-
-        HashMap<String, MapLocation> checkedLocations = new HashMap<>();
-        checkedLocations.put(Player.locationToString(startLocation), startLocation);
-
-        while (!frontier.isEmpty()) {
-
-            // Get next direction to check around. Will put in the checked location a pair with the key as the
-            // Next location with the value as the current location.
-            MapLocation currentLocation = frontier.poll();
-            if (currentLocation.isAdjacentTo(destination)) {
-                return true;
-            }
-
-            // Check if locations around frontier location have already been added to came from and if they are empty
-            for (Direction nextDirection: Player.getMoveDirections()) {
-                MapLocation nextLocation = currentLocation.add(nextDirection);
-
-                if (Player.isLocationEmptyForStructure(nextLocation) && !checkedLocations.containsKey(Player.locationToString(nextLocation))) {
-                    frontier.add(nextLocation);
-                    checkedLocations.put(Player.locationToString(nextLocation), currentLocation);
-                }
-            }
-        }
-        return false;
+    public static PlanetController getController() {
+        return planet == Planet.Earth ? Earth.earthController : Mars.marsController;
     }
 
-    public static int getPassableArea(MapLocation startLocation) {
-
-        Queue<MapLocation> frontier = new LinkedList<>();
-        frontier.add(startLocation);
-
-        HashSet<String> checkedLocations = new HashSet<>();
-        checkedLocations.add(Player.locationToString(startLocation));
-
-        while (!frontier.isEmpty()) {
-
-            // Get next direction to check around. Will put in the checked location a pair with the key as the
-            // Next location with the value as the current location.
-            MapLocation currentLocation = frontier.poll();
-
-            // Check if locations around frontier location have already been added to came from and if they are empty
-            for (Direction nextDirection: Player.getMoveDirections()) {
-                MapLocation nextLocation = currentLocation.add(nextDirection);
-
-                if (Player.isLocationEmptyForStructure(nextLocation) && !checkedLocations.contains(Player.locationToString(nextLocation))) {
-                    frontier.add(nextLocation);
-                    checkedLocations.add(Player.locationToString(nextLocation));
-                }
-            }
-        }
-        return checkedLocations.size();
+    /**
+     * Gets the choke analysis of the given planet
+     * @param planet The planet
+     * @return The choke analysis of the planet
+     */
+    public static ChokeAnalysis getChokeAnalysis(Planet planet) {
+        return planet == Planet.Earth ? Earth.earthController.getChokeAnalysis() : Mars.marsController.getChokeAnalysis();
     }
 }
 
-
@@ -0,0 +1,111 @@
+import bc.*;
+
+/**
+ * Decides what the factories on Earth produce. Once a round the planner picks a production mix from the exact
+ * friendly unit counts and the enemy types that have been seen, then gives each idle factory its own order,
+ * counting the orders already given so that factories do not all produce the same unit in the same round. Orders
+ * are only given while the karbonite left after reserving for structures waiting to be built covers them.
+ */
+public class ProductionPlanner {
+
+    private static final int ROBOT_COST = 40;
+    private static final int WORKER_COST = 50;
+    private static final int ROCKET_COST = 150;
+
+    // Base weights of the production mix before the enemy composition is added
+    private static final int BASE_KNIGHT_WEIGHT = 3;
+    private static final int BASE_RANGER_WEIGHT = 1;
+
+    // Healers are produced for every few combat units once the army is large enough
+    private static final int HEALER_MIN_ARMY = 6;
+    private static final int COMBAT_UNITS_PER_HEALER = 3;
+
+    // After this round a factory no longer replaces the last worker
+    private static final int LAST_WORKER_ROUND = 700;
+
+    private static final UnitType[] COMBAT_TYPES = {UnitType.Knight, UnitType.Ranger, UnitType.Mage};
+
+    /**
+     * Method that will give every idle factory on Earth a production order for this round. Called once a round
+     * after the economy model has been updated
+     */
+    public static void planRound() {
+        UnitRegistry units = Earth.earthController.getUnits();
+
+        int[] counts = new int[UnitType.values().length];
+        for (UnitType unitType: UnitType.values()) {
+            counts[unitType.ordinal()] = UnitLifecycleTracker.getUnitCount(unitType);
+        }
+
+        int[] weights = new int[UnitType.values().length];
+        weights[UnitType.Knight.ordinal()] = BASE_KNIGHT_WEIGHT + EnemyMemory.getRememberedCount(UnitType.Ranger) +
+                EnemyMemory.getRememberedCount(UnitType.Mage);
+        weights[UnitType.Ranger.ordinal()] = BASE_RANGER_WEIGHT + EnemyMemory.getRememberedCount(UnitType.Knight);
+        weights[UnitType.Mage.ordinal()] = EnemyMemory.getRememberedCount(UnitType.Worker) / 2;
+
+        int budget = (int)(Player.gc.karbonite()) - getStructureReserve();
+        for (int factoryId = units.nextId(UnitGroup.FACTORY, 0); factoryId != -1; factoryId = units.nextId(UnitGroup.FACTORY, factoryId + 1)) {
+            Factory factory = (Factory)(units.get(UnitGroup.FACTORY, factoryId));
+            factory.setProductionOrder(null);
+            if (!factory.isBuilt() || budget < ROBOT_COST || !Player.gc.canProduceRobot(factoryId, UnitType.Knight)) {
+                continue;
+            }
+
+            UnitType order = pickUnit(counts, weights);
+            int cost = order == UnitType.Worker ? WORKER_COST : ROBOT_COST;
+            if (budget < cost) {
+                continue;
+            }
+
+            // System.out.println("Factory: " + factoryId + " ordered to produce " + order);
+            factory.setProductionOrder(order);
+            counts[order.ordinal()]++;
+            budget -= cost;
+        }
+    }
+
+    /**
+     * Helper method that will pick the unit that is furthest below its share of the production mix. A factory
+     * replaces the last worker first, and healers are kept at a fixed ratio to the combat units
+     * @param counts The number of units of each type including the orders given this round
+     * @param weights The weight of each combat type in the mix
+     * @return The unit to produce
+     */
+    private static UnitType pickUnit(int[] counts, int[] weights) {
+        if (counts[UnitType.Worker.ordinal()] == 0 && Player.gc.round() < LAST_WORKER_ROUND) {
+            return UnitType.Worker;
+        }
+
+        int combatCount = 0;
+        for (UnitType unitType: COMBAT_TYPES) {
+            combatCount += counts[unitType.ordinal()];
+        }
+
+        if (combatCount >= HEALER_MIN_ARMY && counts[UnitType.Healer.ordinal()] < combatCount / COMBAT_UNITS_PER_HEALER) {
+            return UnitType.Healer;
+        }
+
+        // Compare count / weight between types without dividing, the type with the smallest ratio is the furthest
+        // below its share
+        UnitType bestType = UnitType.Knight;
+        for (UnitType unitType: COMBAT_TYPES) {
+            int weight = weights[unitType.ordinal()];
+            if (weight > 0 && (long)counts[unitType.ordinal()] * weights[bestType.ordinal()] <
+                    (long)counts[bestType.ordinal()] * weight) {
+                bestType = unitType;
+            }
+        }
+        return bestType;
+    }
+
+    /**
+     * Helper method that will get the karbonite to keep for the factories and rockets waiting to be blueprinted,
+     * less the income expected before workers reach their sites
+     * @return The karbonite to keep
+     */
+    private static int getStructureReserve() {
+        int reserve = Earth.earthController.countUnblueprintedTasks(Command.CONSTRUCT_FACTORY) * EconomyModel.FACTORY_COST +
+                Earth.earthController.countUnblueprintedTasks(Command.CONSTRUCT_ROCKET) * ROCKET_COST;
+        return Math.max(0, reserve - EconomyModel.getProjectedIncome() * EconomyModel.FACTORY_LEAD_ROUNDS);
+    }
+}
@@ -7,7 +7,7 @@ public class Ranger extends Attacker {
     private static final int MIN_ATTACK_RANGE = 10;
 
     public Ranger(int id) {
-        super(id);
+        super(id, UnitType.Ranger);
     }
 
     @Override
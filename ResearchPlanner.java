@@ -0,0 +1,184 @@
+import bc.*;
+
+import java.util.ArrayList;
+
+/**
+ * Plans the research queue from the state of the game. At the start of the game the map is measured once: how
+ * far the enemy is by walking, if it can be reached at all, and how rich the karbonite is. The plan is rebuilt
+ * from those facts, the round and the current army at every checkpoint, and the research queue is only reset when
+ * the new plan is different from what is queued, once the research in progress has finished.
+ */
+public class ResearchPlanner {
+
+    private static final int CHECKPOINT_INTERVAL = 50;
+
+    // Maximum research level of each unit type, indexed by the ordinal of the unit type
+    private static final int[] MAX_LEVELS = {4, 3, 3, 4, 3, 3, 3};
+
+    // The enemy is close enough to rush if it is this many moves away, or the reachable area is this small
+    private static final int RUSH_DISTANCE = 20;
+    private static final int SMALL_MAP_AREA = 400;
+
+    // Karbonite per starting worker above which worker research pays off early
+    private static final int RICH_KARBONITE_PER_WORKER = 500;
+
+    // Rockets must be researched by this round so that units can leave Earth before the flood
+    private static final int EVACUATION_ROUND = 350;
+
+    private static boolean isEnemyReachable = true;
+    private static int enemyDistance = FlowField.UNREACHABLE;
+    private static int reachableArea = 0;
+    private static long nextCheckpointRound = 0;
+    private static boolean isWaitingForResearch = false;
+
+    /**
+     * Method that will measure the map once at the start of the game. Must be called on Earth after the enemy
+     * starting locations are stored and the economy model is initialized
+     */
+    public static void initialize() {
+        Planet planet = Planet.Earth;
+        VecUnit startingUnits = Player.gc.myUnits();
+        int startIndex = -1;
+        for (int i = 0; i < startingUnits.size() && startIndex == -1; i++) {
+            if (startingUnits.get(i).location().isOnPlanet(planet)) {
+                startIndex = MapGrid.toIndex(startingUnits.get(i).location().mapLocation());
+            }
+        }
+        if (startIndex == -1) {
+            return;
+        }
+
+        reachableArea = Player.getPassableArea(MapGrid.toLocation(planet, startIndex));
+        isEnemyReachable = false;
+        for (MapLocation enemyStartingLocation: Player.enemyStartingLocations) {
+            FlowField flowField = new FlowField(planet, MapGrid.toIndex(enemyStartingLocation));
+            enemyDistance = Math.min(enemyDistance, flowField.getDistance(startIndex));
+            if (Player.getChokeAnalysis(planet).canReach(startIndex, MapGrid.toIndex(enemyStartingLocation))) {
+                isEnemyReachable = true;
+            }
+        }
+    }
+
+    /**
+     * Method that will rebuild the research plan at each checkpoint and queue it if it changed. Called once a round
+     * on Earth
+     */
+    public static void update() {
+        long round = Player.gc.round();
+        if (round < nextCheckpointRound) {
+            return;
+        }
+        nextCheckpointRound = round + CHECKPOINT_INTERVAL;
+
+        ResearchInfo researchInfo = Player.gc.researchInfo();
+        ArrayList<UnitType> plan = buildPlan(researchInfo, round);
+        if (isQueued(researchInfo, plan)) {
+            isWaitingForResearch = false;
+            return;
+        }
+
+        // Resetting the queue throws away the progress of the research in progress, so wait for it to finish first
+        if (researchInfo.hasNextInQueue() != 0 && !isWaitingForResearch) {
+            isWaitingForResearch = true;
+            nextCheckpointRound = round + Math.max(1, researchInfo.roundsLeft());
+            return;
+        }
+        isWaitingForResearch = false;
+
+        // System.out.println("Research plan changed to " + plan);
+        Player.gc.resetResearch();
+        for (UnitType unitType: plan) {
+            Player.gc.queueResearch(unitType);
+        }
+        UnitStats.invalidate();
+    }
+
+    /**
+     * Helper method that will build the research plan for the rest of the game. Rockets come first when the enemy
+     * cannot be reached or the flood is getting close, the main combat type and healers come first when the enemy
+     * is close, and rich maps research workers early
+     * @param researchInfo The current research info
+     * @param round The current round
+     * @return The unit types to research in order
+     */
+    private static ArrayList<UnitType> buildPlan(ResearchInfo researchInfo, long round) {
+        int[] levels = new int[UnitType.values().length];
+        for (UnitType unitType: UnitType.values()) {
+            levels[unitType.ordinal()] = (int)(researchInfo.getLevel(unitType));
+        }
+
+        ArrayList<UnitType> plan = new ArrayList<>();
+        UnitType mainType = getMainCombatType();
+        boolean isRush = isEnemyReachable && (enemyDistance <= RUSH_DISTANCE || reachableArea <= SMALL_MAP_AREA);
+        boolean isEvacuating = !isEnemyReachable || round >= EVACUATION_ROUND;
+
+        if (isEvacuating) {
+            addResearch(plan, levels, UnitType.Rocket);
+        }
+        if (isRush) {
+            addResearch(plan, levels, mainType);
+            addResearch(plan, levels, UnitType.Healer);
+        }
+        if (EconomyModel.getKarbonitePerWorker() >= RICH_KARBONITE_PER_WORKER) {
+            addResearch(plan, levels, UnitType.Worker);
+        }
+
+        addResearch(plan, levels, mainType);
+        addResearch(plan, levels, UnitType.Healer);
+        addResearch(plan, levels, UnitType.Rocket);
+        addResearch(plan, levels, mainType);
+        addResearch(plan, levels, UnitType.Healer);
+        addResearch(plan, levels, UnitType.Worker);
+        addResearch(plan, levels, UnitType.Rocket);
+        addResearch(plan, levels, mainType);
+        addResearch(plan, levels, UnitType.Rocket);
+        return plan;
+    }
+
+    /**
+     * Helper method that will add the next level of a unit type to the plan if it has not reached its maximum level
+     * @param plan The plan being built
+     * @param levels The research level of each unit type once the plan so far has finished
+     * @param unitType The unit type to research
+     */
+    private static void addResearch(ArrayList<UnitType> plan, int[] levels, UnitType unitType) {
+        if (levels[unitType.ordinal()] < MAX_LEVELS[unitType.ordinal()]) {
+            levels[unitType.ordinal()]++;
+            plan.add(unitType);
+        }
+    }
+
+    /**
+     * Helper method that will get the combat type there are the most of, so that its upgrades are researched
+     * @return The main combat type of the army
+     */
+    private static UnitType getMainCombatType() {
+        UnitType mainType = UnitType.Knight;
+        for (UnitType unitType: new UnitType[] {UnitType.Ranger, UnitType.Mage}) {
+            if (UnitLifecycleTracker.getUnitCount(unitType) > UnitLifecycleTracker.getUnitCount(mainType)) {
+                mainType = unitType;
+            }
+        }
+        return mainType;
+    }
+
+    /**
+     * Helper method that will check if the research queue already holds the plan
+     * @param researchInfo The current research info
+     * @param plan The plan to compare with
+     * @return If the queue and the plan are the same
+     */
+    private static boolean isQueued(ResearchInfo researchInfo, ArrayList<UnitType> plan) {
+        VecUnitType queue = researchInfo.queue();
+        if (queue.size() != plan.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < plan.size(); i++) {
+            if (queue.get(i) != plan.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -13,8 +13,8 @@ public abstract class Robot extends UnitInstance {
     private Stack<MapLocation> movePathStack = null;
     private int stuckCount = 0;
 
-    public Robot(int id) {
-        super(id);
+    public Robot(int id, UnitType unitType) {
+        super(id, unitType);
     }
 
     /**
@@ -38,22 +38,14 @@ public abstract class Robot extends UnitInstance {
     }
 
     /**
-     * Method that a unit will call at the end of each stall task. Will check to see if the units movement heat
-     * is low enough to be loaded onto the rocket
-     * @param commandLocation The location of the rocket
-     * @return If the unit was loaded or not
+     * Method that a unit will call while it waits next to a rocket. The rocket loading coordinator loads the unit,
+     * so the unit only has to check if the rocket has launched without it or if it was taken off the task
+     * @param robotTask The stall task of the unit
+     * @return If the loading task is over and the unit should stop waiting
      */
-    public void requestUnitToLoad(MapLocation commandLocation) {
-        if (Player.gc.hasUnitAtLocation(commandLocation)) {
-            Unit rocket = Player.gc.senseUnitAtLocation(commandLocation);
-            Rocket rocketInstance = Earth.earthRocketMap.get(rocket.id());
-
-            try {
-                rocketInstance.loadUnit(this.getId());
-            } catch (Exception e) {
-                // System.out.println("...");
-            }
-        }
+    public boolean waitForLoading(RobotTask robotTask) {
+        GlobalTask globalTask = Player.getController().getTaskRegistry().getTask(robotTask.getTaskId());
+        return globalTask == null || globalTask.getState() == TaskState.CLOSED || !globalTask.getUnitsOnTask().contains(this.getId());
     }
 
     /**
@@ -102,8 +94,10 @@ public abstract class Robot extends UnitInstance {
 
         // If the current path is null
         if (movePathStack == null) {
-            if (Player.gc.canMove(this.getId(), this.getLocation().directionTo(destinationLocation))) {
-                Player.gc.moveRobot(this.getId(), this.getLocation().directionTo(destinationLocation));
+            Direction directionToDestination = this.getLocation().directionTo(destinationLocation);
+            if (Player.gc.canMove(this.getId(), directionToDestination)) {
+                Player.gc.moveRobot(this.getId(), directionToDestination);
+                RoundSnapshot.recordMove(this.getId(), directionToDestination);
                 return false;
             }
             movePathStack = getPathFromBFS(destinationLocation);
@@ -114,7 +108,10 @@ public abstract class Robot extends UnitInstance {
                  // System.out.println("Unit: " + this.getId() + " cannot reach the desired location");
 
                  if (this.hasTasks() && this.getCurrentTask().getTaskId() != -1) {
-                     Earth.earthTaskMap.get(this.getCurrentTask().getTaskId()).removeWorkerFromList(this.getId());
+                     GlobalTask globalTask = Player.getController().getTaskRegistry().getTask(this.getCurrentTask().getTaskId());
+                     if (globalTask != null) {
+                         globalTask.removeWorkerFromList(this.getId());
+                     }
                  }
                  return true;
              }
@@ -139,8 +136,10 @@ public abstract class Robot extends UnitInstance {
             return false;
         }
 
-        if (Player.gc.canMove(this.getId(), this.getLocation().directionTo(movePathStack.peek()))) {
-            Player.gc.moveRobot(this.getId(), this.getLocation().directionTo(movePathStack.peek()));
+        Direction directionToNextLocation = this.getLocation().directionTo(movePathStack.peek());
+        if (Player.gc.canMove(this.getId(), directionToNextLocation)) {
+            Player.gc.moveRobot(this.getId(), directionToNextLocation);
+            RoundSnapshot.recordMove(this.getId(), directionToNextLocation);
             stuckCount = 0;
             return true;
         } else {
@@ -7,13 +7,19 @@ public class Rocket extends UnitInstance {
     private boolean isBuilt;
     private boolean inFlight;
 
+    // Health of the rocket on the previous round, and the round its garrison became full or -1 if it is not full
+    private int lastHealth;
+    private long fullRound;
+
     public Rocket(int id, boolean isBuilt) {
-        super(id);
+        super(id, UnitType.Rocket);
         this.isBuilt = isBuilt;
         this.inFlight = false;
+        this.lastHealth = -1;
+        this.fullRound = -1;
 
-        if (isBuilt) {
-            Earth.createGlobalTask(Command.LOAD_ROCKET, this.getLocation());
+        if (isBuilt && Player.planet == Planet.Earth) {
+            Player.getController().createGlobalTask(Command.LOAD_ROCKET, this.getLocation());
         }
     }
 
@@ -25,17 +31,25 @@ public class Rocket extends UnitInstance {
     public void run() {
         if (isBuilt) {
 
-            if (!inFlight && this.getLocation().getPlanet() == Planet.Earth && Player.gc.unit(this.getId()).structureGarrison().size() == 8) {
+            if (!inFlight && this.getLocation().getPlanet() == Planet.Earth) {
+                if (!isReadyToLaunch()) {
+                    return;
+                }
 
-                // TODO: Don't forget about changing the location
-                MapLocation locationToLand = Player.getRandomLocationToLandOnMars();
+                MapLocation locationToLand = LandingSitePlanner.pickSite();
                 System.out.println("Rocket: " + this.getId() + " Trying to launch");
 
-                if (Player.gc.canLaunchRocket(this.getId(), locationToLand)) {
+                if (locationToLand != null && Player.gc.canLaunchRocket(this.getId(), locationToLand)) {
                     Player.gc.launchRocket(this.getId(), locationToLand);
+                    LandingSitePlanner.reserveSite(locationToLand);
 
                     System.out.println("Rocket: " + this.getId() + " launched!");
-                    Earth.structureLocations.remove(Player.locationToString(this.getLocation()));
+                    GlobalTask loadTask = Player.getController().getTaskRegistry().getTaskAt(this.getLocation());
+                    if (loadTask != null) {
+                        Player.getController().getTaskRegistry().retire(loadTask);
+                    }
+                    Player.getController().getLoadingCoordinator().releaseRocket(this.getLocation());
+                    Player.getController().getStructureSites().removeStructure(this.getLocation());
                     inFlight = true;
                 }
 
@@ -45,6 +59,30 @@ public class Rocket extends UnitInstance {
         }
     }
 
+    /**
+     * Helper method that will ask the launch planner if the rocket should launch this round, given how full it is,
+     * how long it has been full and if it took damage since the last round
+     * @return If the rocket should launch now
+     */
+    private boolean isReadyToLaunch() {
+        Unit rocket = Player.gc.unit(this.getId());
+        long round = Player.gc.round();
+        int garrisonSize = (int)(rocket.structureGarrison().size());
+        boolean isFull = garrisonSize >= rocket.structureMaxCapacity();
+
+        int health = (int)(rocket.health());
+        boolean isThreatened = lastHealth != -1 && health < lastHealth;
+        lastHealth = health;
+
+        if (!isFull) {
+            fullRound = -1;
+        } else if (fullRound == -1) {
+            fullRound = round;
+        }
+
+        return LaunchPlanner.shouldLaunch(round, garrisonSize, fullRound, isThreatened);
+    }
+
     /**
      * Method will unload all the units it can when the rocket reaches mars.
      */
@@ -79,26 +117,11 @@ public class Rocket extends UnitInstance {
                 }
 
                 if (unitType == UnitType.Worker) {
-                    Mars.marsWorkerMap.put(unitId, unitInstance);
+                    Player.getController().getUnits().stage(UnitGroup.WORKER, unitInstance);
                 } else {
-                    Mars.marsAttackerMap.put(unitId, unitInstance);
+                    Player.getController().getUnits().stage(UnitGroup.ATTACKER, unitInstance);
                 }
             }
         }
     }
-
-    /**
-     * Every round this method is called to try to load units that were previously unable to be loaded
-     */
-    public boolean loadUnit(int unitId) {
-        if (Player.gc.canLoad(this.getId(), unitId)) {
-            Player.gc.load(this.getId(), unitId);
-            Earth.earthGarrisonedUnits.add(unitId);
-
-            System.out.println("Rocket: " + this.getId() + " loaded unit " + unitId);
-            return true;
-        }
-
-        return false;
-    }
 }
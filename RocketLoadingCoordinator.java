@@ -0,0 +1,110 @@
+import bc.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Loads units into the rockets of a planet. Units given to a rocket loading task reserve a slot in the rocket and
+ * walk to it, and once a round every rocket loads all of its reserved units that are next to it in one pass,
+ * nearest first, until the garrison is full. Units waiting next to a rocket do not need to do anything themselves.
+ */
+public class RocketLoadingCoordinator {
+
+    private final Planet planet;
+    private final UnitRegistry units;
+
+    // Reserved unit ids of each rocket, keyed by the packed index of the rocket's cell
+    private final HashMap<Integer, HashSet<Integer>> reservations;
+
+    public RocketLoadingCoordinator(Planet planet, UnitRegistry units) {
+        this.planet = planet;
+        this.units = units;
+        this.reservations = new HashMap<>();
+    }
+
+    /**
+     * Method that will reserve a slot in the rocket at the given location for a unit
+     * @param rocketLocation The location of the rocket
+     * @param unitId The id of the unit
+     */
+    public void reserveSlot(MapLocation rocketLocation, int unitId) {
+        int rocketIndex = MapGrid.toIndex(rocketLocation);
+        if (!reservations.containsKey(rocketIndex)) {
+            reservations.put(rocketIndex, new HashSet<>());
+        }
+        reservations.get(rocketIndex).add(unitId);
+    }
+
+    /**
+     * Method that will give back the slot of a unit that died or was taken off its loading task
+     * @param unitId The id of the unit
+     */
+    public void releaseUnit(int unitId) {
+        for (HashSet<Integer> reservedUnits: reservations.values()) {
+            reservedUnits.remove(unitId);
+        }
+    }
+
+    /**
+     * Method that will drop every reservation of a rocket once it has launched
+     * @param rocketLocation The location the rocket launched from
+     */
+    public void releaseRocket(MapLocation rocketLocation) {
+        reservations.remove(MapGrid.toIndex(rocketLocation));
+    }
+
+    /**
+     * Method that will load every reserved unit standing next to its rocket. Called once a round before the rockets
+     * decide if they launch, so a rocket filled this round can launch right away
+     */
+    public void loadRockets() {
+        for (int rocketId = units.nextId(UnitGroup.ROCKET, 0); rocketId != -1; rocketId = units.nextId(UnitGroup.ROCKET, rocketId + 1)) {
+            if (!RoundSnapshot.isOnMap(rocketId)) {
+                continue;
+            }
+
+            int rocketX = RoundSnapshot.getX(rocketId);
+            int rocketY = RoundSnapshot.getY(rocketId);
+            HashSet<Integer> reservedUnits = reservations.get(MapGrid.toIndex(planet, rocketX, rocketY));
+            if (reservedUnits == null || reservedUnits.isEmpty()) {
+                continue;
+            }
+
+            Unit rocket = Player.gc.unit(rocketId);
+            if (rocket.structureIsBuilt() == 0) {
+                continue;
+            }
+            int openSlots = (int)(rocket.structureMaxCapacity() - rocket.structureGarrison().size());
+
+            // Order the reserved units by distance so the nearest are loaded first when there are not enough slots
+            long[] unitKeys = new long[reservedUnits.size()];
+            int unitCount = 0;
+            for (int unitId: reservedUnits) {
+                if (RoundSnapshot.isOnMap(unitId)) {
+                    int distance = Math.max(Math.abs(RoundSnapshot.getX(unitId) - rocketX), Math.abs(RoundSnapshot.getY(unitId) - rocketY));
+                    unitKeys[unitCount++] = ((long)distance << 32) | unitId;
+                }
+            }
+            Arrays.sort(unitKeys, 0, unitCount);
+
+            for (int i = 0; i < unitCount && openSlots > 0; i++) {
+
+                // The rest of the units are still walking to the rocket
+                if ((int)(unitKeys[i] >> 32) > 1) {
+                    break;
+                }
+
+                int unitId = (int)(unitKeys[i] & 0xFFFFFFFFL);
+                if (Player.gc.canLoad(rocketId, unitId)) {
+                    Player.gc.load(rocketId, unitId);
+                    RoundSnapshot.recordGarrisoned(unitId);
+                    units.markGarrisoned(unitId);
+                    reservedUnits.remove(unitId);
+                    openSlots--;
+                    // System.out.println("Rocket: " + rocketId + " loaded unit " + unitId);
+                }
+            }
+        }
+    }
+}
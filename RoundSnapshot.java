@@ -0,0 +1,209 @@
+import bc.*;
+
+import java.util.Arrays;
+
+/**
+ * Snapshot of all friendly units taken once at the start of each round with a single myUnits() call. Unit data
+ * is kept in arrays indexed by unit id so that locations can be read without going through the game controller.
+ * The snapshot also keeps which cells are taken by friendly units on the map. Moves, loads and unloads made during
+ * the round must be recorded here to keep the snapshot in sync.
+ */
+public class RoundSnapshot {
+
+    public static final int NOT_ON_MAP = 0;
+    public static final int ON_MAP = 1;
+    public static final int IN_GARRISON = 2;
+    public static final int IN_SPACE = 3;
+
+    private static int[] unitX = new int[0];
+    private static int[] unitY = new int[0];
+    private static int[] unitStates = new int[0];
+    private static UnitType[] unitTypes = new UnitType[0];
+
+    // Sorted ids of every unit in the current snapshot
+    private static int[] unitIds = new int[0];
+    private static int unitCount = 0;
+
+    // Id plus one of the friendly unit on each cell of the planet, or 0 if the cell has no friendly unit
+    private static int[] cellOccupants = null;
+
+    /**
+     * Method that will take the snapshot for this round. Clears the data of the units in the previous snapshot
+     * before storing the new data so that dead units are no longer seen as on the map.
+     */
+    public static void update() {
+        Planet planet = Player.gc.planet();
+        if (cellOccupants == null) {
+            cellOccupants = new int[MapGrid.getCellCount(planet)];
+        }
+
+        for (int i = 0; i < unitCount; i++) {
+            clearCell(unitIds[i]);
+            unitStates[unitIds[i]] = NOT_ON_MAP;
+        }
+
+        VecUnit units = Player.gc.myUnits();
+        int size = (int)(units.size());
+        if (unitIds.length < size) {
+            unitIds = new int[size * 2];
+        }
+
+        for (int i = 0; i < size; i++) {
+            Unit unit = units.get(i);
+            int unitId = unit.id();
+            ensureCapacity(unitId);
+
+            Location location = unit.location();
+            if (location.isOnPlanet(planet)) {
+                MapLocation mapLocation = location.mapLocation();
+                unitX[unitId] = mapLocation.getX();
+                unitY[unitId] = mapLocation.getY();
+                unitStates[unitId] = ON_MAP;
+                cellOccupants[MapGrid.toIndex(planet, unitX[unitId], unitY[unitId])] = unitId + 1;
+            } else if (location.isInGarrison()) {
+                unitStates[unitId] = IN_GARRISON;
+            } else if (location.isInSpace()) {
+                unitStates[unitId] = IN_SPACE;
+            } else {
+                unitStates[unitId] = NOT_ON_MAP;
+            }
+
+            unitTypes[unitId] = unit.unitType();
+            unitIds[i] = unitId;
+        }
+
+        unitCount = size;
+        Arrays.sort(unitIds, 0, unitCount);
+    }
+
+    public static boolean isOnMap(int unitId) {
+        return unitId < unitStates.length && unitStates[unitId] == ON_MAP;
+    }
+
+    public static int getState(int unitId) {
+        return unitId < unitStates.length ? unitStates[unitId] : NOT_ON_MAP;
+    }
+
+    public static int getX(int unitId) {
+        return unitX[unitId];
+    }
+
+    public static int getY(int unitId) {
+        return unitY[unitId];
+    }
+
+    /**
+     * Checks if a friendly unit is standing on a cell
+     * @param index The packed index of the cell
+     * @return If the cell is taken by a friendly unit
+     */
+    public static boolean isOccupied(int index) {
+        return cellOccupants != null && cellOccupants[index] != 0;
+    }
+
+    public static UnitType getUnitType(int unitId) {
+        return unitId < unitTypes.length ? unitTypes[unitId] : null;
+    }
+
+    public static int getUnitCount() {
+        return unitCount;
+    }
+
+    public static int getUnitId(int position) {
+        return unitIds[position];
+    }
+
+    /**
+     * Method that must be called after a unit has moved so the snapshot knows its new location
+     * @param unitId The id of the unit that moved
+     * @param direction The direction the unit moved in
+     */
+    public static void recordMove(int unitId, Direction direction) {
+        if (isOnMap(unitId)) {
+            clearCell(unitId);
+            unitX[unitId] += MapGrid.DX[direction.swigValue()];
+            unitY[unitId] += MapGrid.DY[direction.swigValue()];
+            cellOccupants[MapGrid.toIndex(Player.planet, unitX[unitId], unitY[unitId])] = unitId + 1;
+        }
+    }
+
+    /**
+     * Method that must be called after a unit has been loaded into a structure
+     * @param unitId The id of the unit that was loaded
+     */
+    public static void recordGarrisoned(int unitId) {
+        if (unitId < unitStates.length) {
+            clearCell(unitId);
+            unitStates[unitId] = IN_GARRISON;
+        }
+    }
+
+    /**
+     * Method that must be called after a unit of a known type has been unloaded from a structure, so that its
+     * location does not have to be read from the game controller
+     * @param unitId The id of the unit that was unloaded
+     * @param unitType The type of the unit
+     * @param mapLocation The location the unit was unloaded to
+     */
+    public static void recordUnloaded(int unitId, UnitType unitType, MapLocation mapLocation) {
+        ensureCapacity(unitId);
+        unitTypes[unitId] = unitType;
+        unitX[unitId] = mapLocation.getX();
+        unitY[unitId] = mapLocation.getY();
+        unitStates[unitId] = ON_MAP;
+        cellOccupants[MapGrid.toIndex(mapLocation)] = unitId + 1;
+    }
+
+    /**
+     * Method that will read the location of a unit that was not on the map when the snapshot was taken, such as
+     * a unit that was unloaded this round, and store it in the snapshot
+     * @param unitId The id of the unit
+     * @return If the unit is now on the map
+     */
+    public static boolean refreshUnit(int unitId) {
+        ensureCapacity(unitId);
+
+        Unit unit = Player.gc.unit(unitId);
+        unitTypes[unitId] = unit.unitType();
+        Location location = unit.location();
+        if (location.isOnPlanet(Player.gc.planet())) {
+            MapLocation mapLocation = location.mapLocation();
+            unitX[unitId] = mapLocation.getX();
+            unitY[unitId] = mapLocation.getY();
+            unitStates[unitId] = ON_MAP;
+            cellOccupants[MapGrid.toIndex(mapLocation)] = unitId + 1;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Helper method that will free the cell of a unit that is leaving it, if the unit is on the map
+     * @param unitId The id of the unit
+     */
+    private static void clearCell(int unitId) {
+        if (isOnMap(unitId)) {
+            int index = MapGrid.toIndex(Player.planet, unitX[unitId], unitY[unitId]);
+            if (cellOccupants[index] == unitId + 1) {
+                cellOccupants[index] = 0;
+            }
+        }
+    }
+
+    /**
+     * Helper method that will grow the id indexed arrays so that they can hold the given id
+     * @param unitId The id that must fit in the arrays
+     */
+    private static void ensureCapacity(int unitId) {
+        if (unitId < unitStates.length) {
+            return;
+        }
+
+        int newLength = Math.max(unitId + 1, unitStates.length * 2);
+        unitX = Arrays.copyOf(unitX, newLength);
+        unitY = Arrays.copyOf(unitY, newLength);
+        unitStates = Arrays.copyOf(unitStates, newLength);
+        unitTypes = Arrays.copyOf(unitTypes, newLength);
+    }
+}
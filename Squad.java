@@ -0,0 +1,193 @@
+import bc.*;
+
+import java.util.ArrayList;
+
+/**
+ * A group of attackers heading to the same objective. The leader walks down a flow field to the objective that is
+ * shared by every squad with that objective, and the other members keep a formation slot around the leader with a
+ * single greedy step, so no member searches for its own path. The squad decides once a round if it is regrouping
+ * or engaging an enemy that one of its members is fighting.
+ */
+public class Squad {
+
+    // Formation slots relative to the leader, in the order members fill them. The leader uses the first slot
+    private static final int[] FORMATION_DX = {0, -1, 1, -1, 1, 0, -2, 2, 0};
+    private static final int[] FORMATION_DY = {0, -1, -1, 1, 1, -2, 0, 0, 2};
+    public static final int MAX_SIZE = FORMATION_DX.length;
+
+    // Distance a member can be from its slot before the leader waits for it
+    private static final int MAX_SPREAD = 3;
+    private static final int MAX_WAIT_ROUNDS = 3;
+
+    private final Planet planet;
+    private final int objectiveIndex;
+    private final FlowField flowField;
+    private final ArrayList<Integer> memberIds;
+
+    private boolean isRegrouping;
+    private int waitRounds;
+    private int engageIndex;
+
+    public Squad(Planet planet, FlowField flowField) {
+        this.planet = planet;
+        this.objectiveIndex = flowField.getTargetIndex();
+        this.flowField = flowField;
+        this.memberIds = new ArrayList<>();
+        this.isRegrouping = false;
+        this.waitRounds = 0;
+        this.engageIndex = -1;
+    }
+
+    public int getObjectiveIndex() {
+        return objectiveIndex;
+    }
+
+    public ArrayList<Integer> getMemberIds() {
+        return memberIds;
+    }
+
+    public int getLeaderId() {
+        return memberIds.isEmpty() ? -1 : memberIds.get(0);
+    }
+
+    public int size() {
+        return memberIds.size();
+    }
+
+    public void addMember(int unitId) {
+        memberIds.add(unitId);
+    }
+
+    public void removeMember(int unitId) {
+        memberIds.remove(Integer.valueOf(unitId));
+    }
+
+    /**
+     * Method that will make the decisions of the squad for this round. If a member is fighting, the whole squad
+     * moves to it. Otherwise the leader waits for members that fell behind, for a few rounds at most
+     * @param units The unit registry of the planet
+     */
+    public void planRound(UnitRegistry units) {
+        engageIndex = -1;
+        isRegrouping = false;
+
+        int leaderId = getLeaderId();
+        for (int i = 0; i < memberIds.size(); i++) {
+            int unitId = memberIds.get(i);
+            RobotTask emergencyTask = units.get(UnitGroup.ATTACKER, unitId).getEmergencyTask();
+            if (emergencyTask != null && emergencyTask.getCommand() == Command.IN_COMBAT) {
+                engageIndex = getIndex(unitId);
+                return;
+            }
+
+            int slotX = RoundSnapshot.getX(leaderId) + FORMATION_DX[i];
+            int slotY = RoundSnapshot.getY(leaderId) + FORMATION_DY[i];
+            if (getDistance(unitId, slotX, slotY) > MAX_SPREAD) {
+                isRegrouping = true;
+            }
+        }
+
+        if (isRegrouping && waitRounds >= MAX_WAIT_ROUNDS) {
+            isRegrouping = false;
+        }
+        waitRounds = isRegrouping ? waitRounds + 1 : 0;
+    }
+
+    /**
+     * Method that will move a member of the squad for this round
+     * @param unitId The id of the member
+     * @return If the squad has reached its objective
+     */
+    public boolean moveMember(int unitId) {
+        int leaderId = getLeaderId();
+        if (flowField.getDistance(getIndex(leaderId)) <= 1) {
+            return true;
+        }
+        if (!Player.gc.isMoveReady(unitId)) {
+            return false;
+        }
+
+        int width = MapGrid.getWidth(planet);
+        if (engageIndex != -1) {
+            stepTowards(unitId, engageIndex % width, engageIndex / width);
+
+        } else if (unitId == leaderId) {
+            if (!isRegrouping) {
+                stepDownFlowField(unitId);
+            }
+
+        } else {
+            int slot = memberIds.indexOf(unitId);
+            stepTowards(unitId, RoundSnapshot.getX(leaderId) + FORMATION_DX[slot], RoundSnapshot.getY(leaderId) + FORMATION_DY[slot]);
+        }
+        return false;
+    }
+
+    /**
+     * Helper method that will move the unit to the neighbouring cell that is closest to the objective
+     * @param unitId The id of the unit
+     */
+    private void stepDownFlowField(int unitId) {
+        int index = getIndex(unitId);
+        int bestDirection = -1;
+        int bestDistance = flowField.getDistance(index);
+        for (int direction = 0; direction < 8; direction++) {
+            int neighbour = MapGrid.getNeighbour(planet, index, direction);
+            if (neighbour != -1 && flowField.getDistance(neighbour) < bestDistance &&
+                    Player.gc.canMove(unitId, Direction.swigToEnum(direction))) {
+                bestDistance = flowField.getDistance(neighbour);
+                bestDirection = direction;
+            }
+        }
+
+        if (bestDirection != -1) {
+            move(unitId, bestDirection);
+        }
+    }
+
+    /**
+     * Helper method that will take one step towards a cell, trying the direction to it and then the two directions
+     * next to it
+     * @param unitId The id of the unit
+     * @param targetX The x coordinate of the cell
+     * @param targetY The y coordinate of the cell
+     */
+    private void stepTowards(int unitId, int targetX, int targetY) {
+        int dx = Integer.signum(targetX - RoundSnapshot.getX(unitId));
+        int dy = Integer.signum(targetY - RoundSnapshot.getY(unitId));
+        if (dx == 0 && dy == 0) {
+            return;
+        }
+
+        int direction = 0;
+        while (MapGrid.DX[direction] != dx || MapGrid.DY[direction] != dy) {
+            direction++;
+        }
+
+        int[] tryDirections = {direction, (direction + 1) % 8, (direction + 7) % 8};
+        for (int tryDirection: tryDirections) {
+            if (Player.gc.canMove(unitId, Direction.swigToEnum(tryDirection))) {
+                move(unitId, tryDirection);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Helper method that will move a unit and record the move in the round snapshot
+     * @param unitId The id of the unit
+     * @param direction The direction to move in
+     */
+    private void move(int unitId, int direction) {
+        Player.gc.moveRobot(unitId, Direction.swigToEnum(direction));
+        RoundSnapshot.recordMove(unitId, Direction.swigToEnum(direction));
+    }
+
+    private int getIndex(int unitId) {
+        return MapGrid.toIndex(planet, RoundSnapshot.getX(unitId), RoundSnapshot.getY(unitId));
+    }
+
+    private int getDistance(int unitId, int x, int y) {
+        return Math.max(Math.abs(RoundSnapshot.getX(unitId) - x), Math.abs(RoundSnapshot.getY(unitId) - y));
+    }
+}
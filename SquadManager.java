@@ -0,0 +1,133 @@
+import bc.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Groups the attackers of a planet that share an attack objective into squads. Squads with the same objective share
+ * one flow field, so the number of path searches grows with the number of objectives and not with the number of
+ * attackers. Members leave their squad when they die, take a global task, or are given another objective.
+ */
+public class SquadManager {
+
+    // Maximum distance from the leader a unit can be to join a squad
+    private static final int JOIN_DISTANCE = 6;
+
+    private final Planet planet;
+    private final UnitRegistry units;
+    private final AttackObjectiveManager objectiveManager;
+
+    private final ArrayList<Squad> squads;
+    private final HashMap<Integer, Squad> memberSquads;
+    private final HashMap<Integer, FlowField> objectiveFlowFields;
+
+    public SquadManager(Planet planet, UnitRegistry units, AttackObjectiveManager objectiveManager) {
+        this.planet = planet;
+        this.units = units;
+        this.objectiveManager = objectiveManager;
+        this.squads = new ArrayList<>();
+        this.memberSquads = new HashMap<>();
+        this.objectiveFlowFields = new HashMap<>();
+    }
+
+    /**
+     * Gets the squad of an attacker
+     * @param unitId The id of the attacker
+     * @return The squad or null if the attacker is not in one
+     */
+    public Squad getSquad(int unitId) {
+        return memberSquads.get(unitId);
+    }
+
+    /**
+     * Method that will remove the members that can no longer follow their squad, put the attackers that are heading
+     * to an objective into squads, and let every squad plan its round. Called once a round after the objectives
+     * have been assigned
+     */
+    public void update() {
+        for (int unitId: new ArrayList<>(memberSquads.keySet())) {
+            if (!canFollow(unitId, memberSquads.get(unitId).getObjectiveIndex())) {
+                memberSquads.remove(unitId).removeMember(unitId);
+            }
+        }
+
+        for (int unitId = units.nextId(UnitGroup.ATTACKER, 0); unitId != -1; unitId = units.nextId(UnitGroup.ATTACKER, unitId + 1)) {
+            MapLocation objectiveLocation = objectiveManager.getObjective(unitId);
+            if (memberSquads.containsKey(unitId) || objectiveLocation == null || !canFollow(unitId, MapGrid.toIndex(objectiveLocation))) {
+                continue;
+            }
+
+            Squad squad = findSquadToJoin(unitId, MapGrid.toIndex(objectiveLocation));
+            squad.addMember(unitId);
+            memberSquads.put(unitId, squad);
+        }
+
+        // Drop the empty squads and the flow fields no squad uses anymore
+        HashSet<Integer> usedObjectives = new HashSet<>();
+        for (int i = squads.size() - 1; i >= 0; i--) {
+            Squad squad = squads.get(i);
+            if (squad.size() == 0) {
+                squads.remove(i);
+            } else {
+                usedObjectives.add(squad.getObjectiveIndex());
+                squad.planRound(units);
+            }
+        }
+        objectiveFlowFields.keySet().retainAll(usedObjectives);
+    }
+
+    /**
+     * Helper method that will find a squad with room, heading to the objective, whose leader is close to the unit.
+     * A new squad is created if there are none
+     * @param unitId The id of the unit
+     * @param objectiveIndex The packed index of the objective of the unit
+     * @return The squad the unit should join
+     */
+    private Squad findSquadToJoin(int unitId, int objectiveIndex) {
+        for (Squad squad: squads) {
+            if (squad.getObjectiveIndex() != objectiveIndex || squad.size() >= Squad.MAX_SIZE || squad.size() == 0) {
+                continue;
+            }
+
+            int leaderId = squad.getLeaderId();
+            int distance = Math.max(Math.abs(RoundSnapshot.getX(leaderId) - RoundSnapshot.getX(unitId)),
+                    Math.abs(RoundSnapshot.getY(leaderId) - RoundSnapshot.getY(unitId)));
+            if (distance <= JOIN_DISTANCE) {
+                return squad;
+            }
+        }
+
+        FlowField flowField = objectiveFlowFields.get(objectiveIndex);
+        if (flowField == null) {
+            flowField = new FlowField(planet, objectiveIndex);
+            objectiveFlowFields.put(objectiveIndex, flowField);
+        }
+
+        Squad squad = new Squad(planet, flowField);
+        squads.add(squad);
+        return squad;
+    }
+
+    /**
+     * Helper method that will check if a unit can be in a squad heading to the given objective. Healers follow their
+     * own targets and units on a global task are busy with it
+     * @param unitId The id of the unit
+     * @param objectiveIndex The packed index of the objective
+     * @return If the unit can be in the squad
+     */
+    private boolean canFollow(int unitId, int objectiveIndex) {
+        if (!units.contains(UnitGroup.ATTACKER, unitId) || !RoundSnapshot.isOnMap(unitId) ||
+                RoundSnapshot.getUnitType(unitId) == UnitType.Healer) {
+            return false;
+        }
+
+        MapLocation objectiveLocation = objectiveManager.getObjective(unitId);
+        if (objectiveLocation == null || MapGrid.toIndex(objectiveLocation) != objectiveIndex) {
+            return false;
+        }
+
+        UnitInstance unit = units.get(UnitGroup.ATTACKER, unitId);
+        return !unit.hasTasks() || unit.getCurrentTask().getTaskId() == -1;
+    }
+}
@@ -0,0 +1,191 @@
+import bc.*;
+
+import java.util.ArrayList;
+
+/**
+ * Index of how suitable each cell of a planet is for a structure. The terrain parts of the score are computed once
+ * and the number of structures around each cell is updated locally whenever a structure is placed or removed, so
+ * checking a cell is O(1). Cells whose blocking would split a region are rejected using the choke analysis of the
+ * planet. Picking a site is a ring by ring search outward from the requested anchor.
+ */
+public class StructureSiteIndex {
+
+    private static final int SAFE_STRUCTURE_DISTANCE = 100;
+    private static final int MIN_OPEN_NEIGHBOURS = 5;
+
+    private final Planet planet;
+    private final int cellCount;
+    private final ChokeAnalysis chokeAnalysis;
+
+    // Terrain information computed once. A structure only changes these values for its neighbours, which are
+    // already rejected by the structure adjacency count, so they never need to be updated
+    private final int[] openNeighbours;
+    private final boolean[] isNearEnemy;
+
+    // Number of structures on or adjacent to each cell, and the cells that have a structure
+    private final int[] structureAdjacency;
+    private final boolean[] hasStructure;
+
+    // Reused buffers for the site search
+    private final int[] frontier;
+    private final int[] visitedStamp;
+    private int searchStamp;
+
+    public StructureSiteIndex(Planet planet, ChokeAnalysis chokeAnalysis) {
+        this.planet = planet;
+        this.cellCount = MapGrid.getCellCount(planet);
+        this.chokeAnalysis = chokeAnalysis;
+        this.openNeighbours = new int[cellCount];
+        this.isNearEnemy = new boolean[cellCount];
+        this.structureAdjacency = new int[cellCount];
+        this.hasStructure = new boolean[cellCount];
+        this.frontier = new int[cellCount];
+        this.visitedStamp = new int[cellCount];
+        this.searchStamp = 0;
+
+        ArrayList<MapLocation> enemyLocations = new ArrayList<>();
+        VecUnit startingUnits = Player.gc.startingMap(planet).getInitial_units();
+        for (int i = 0; i < startingUnits.size(); i++) {
+            if (startingUnits.get(i).team() != Player.team) {
+                enemyLocations.add(startingUnits.get(i).location().mapLocation());
+            }
+        }
+
+        int width = MapGrid.getWidth(planet);
+        for (int index = 0; index < cellCount; index++) {
+            for (int direction = 0; direction < 8; direction++) {
+                if (isOpen(MapGrid.getNeighbour(planet, index, direction))) {
+                    openNeighbours[index]++;
+                }
+            }
+
+            for (MapLocation enemyLocation: enemyLocations) {
+                int dx = index % width - enemyLocation.getX();
+                int dy = index / width - enemyLocation.getY();
+                if (dx * dx + dy * dy < SAFE_STRUCTURE_DISTANCE) {
+                    isNearEnemy[index] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the suitability score of a cell for a structure. A higher score is better
+     * @param index The packed index of the cell
+     * @param considerEnemyDistance If cells close to the enemy starting locations should be rejected
+     * @return The score of the cell, or -1 if a structure should not be placed there
+     */
+    public int getScore(int index, boolean considerEnemyDistance) {
+        if (!MapGrid.isPassable(planet, index) || structureAdjacency[index] > 0 ||
+                openNeighbours[index] < MIN_OPEN_NEIGHBOURS || (considerEnemyDistance && isNearEnemy[index]) ||
+                chokeAnalysis.isArticulationPoint(index)) {
+            return -1;
+        }
+
+        return openNeighbours[index];
+    }
+
+    public boolean hasStructure(int index) {
+        return hasStructure[index];
+    }
+
+    /**
+     * Method that will record a structure or planned structure at the location. Only the 3x3 block around the
+     * location is updated
+     * @param mapLocation The location of the structure
+     */
+    public void addStructure(MapLocation mapLocation) {
+        int index = MapGrid.toIndex(mapLocation);
+        if (hasStructure[index]) {
+            return;
+        }
+
+        hasStructure[index] = true;
+        updateAdjacency(index, 1);
+        chokeAnalysis.addStructure(index);
+    }
+
+    /**
+     * Method that will remove a structure from the index, such as a rocket that has launched
+     * @param mapLocation The location of the structure
+     */
+    public void removeStructure(MapLocation mapLocation) {
+        int index = MapGrid.toIndex(mapLocation);
+        if (!hasStructure[index]) {
+            return;
+        }
+
+        hasStructure[index] = false;
+        updateAdjacency(index, -1);
+        chokeAnalysis.removeStructure(index);
+    }
+
+    /**
+     * Method that will search outward from the anchor one ring at a time and return the best scoring cell of the
+     * first ring that has a suitable cell. The search does not pass through structures
+     * @param anchor The location to search around
+     * @param considerEnemyDistance If cells close to the enemy starting locations should be rejected
+     * @return The best site near the anchor or null if there are no suitable cells
+     */
+    public MapLocation pickSite(MapLocation anchor, boolean considerEnemyDistance) {
+        searchStamp++;
+        int anchorIndex = MapGrid.toIndex(anchor);
+        visitedStamp[anchorIndex] = searchStamp;
+
+        int head = 0;
+        int tail = 0;
+        frontier[tail++] = anchorIndex;
+
+        while (head < tail) {
+            int ringEnd = tail;
+            int bestIndex = -1;
+            int bestScore = -1;
+
+            for (; head < ringEnd; head++) {
+                int currentIndex = frontier[head];
+                int score = getScore(currentIndex, considerEnemyDistance);
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestIndex = currentIndex;
+                }
+
+                for (int direction = 0; direction < 8; direction++) {
+                    int neighbour = MapGrid.getNeighbour(planet, currentIndex, direction);
+                    if (neighbour != -1 && visitedStamp[neighbour] != searchStamp && isOpen(neighbour)) {
+                        visitedStamp[neighbour] = searchStamp;
+                        frontier[tail++] = neighbour;
+                    }
+                }
+            }
+
+            if (bestIndex != -1) {
+                return MapGrid.toLocation(planet, bestIndex);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Helper method that will add the change to the structure count of every cell in the 3x3 block around a cell
+     * @param index The packed index of the center cell
+     * @param change The amount to add to each cell
+     */
+    private void updateAdjacency(int index, int change) {
+        for (int direction = 0; direction < 8 + 1; direction++) {
+            int neighbour = MapGrid.getNeighbour(planet, index, direction);
+            if (neighbour != -1) {
+                structureAdjacency[neighbour] += change;
+            }
+        }
+    }
+
+    /**
+     * Checks if a cell is on the map, passable, and does not have a structure
+     * @param index The packed index of the cell or -1 if it is off the map
+     * @return If the cell is open
+     */
+    private boolean isOpen(int index) {
+        return index != -1 && MapGrid.isPassable(planet, index) && !hasStructure[index];
+    }
+}
@@ -0,0 +1,188 @@
+import bc.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Matches idle units to the open global tasks in one batch per round. Every task keeps a flow field to its
+ * location so the walking distance of every unit is an O(1) lookup, and the pairs are assigned with a greedy
+ * minimum cost matching so that the total walking distance stays low and no unit is given to two tasks.
+ */
+public class TaskMatcher {
+
+    public static final int WORKERS_ON_CONSTRUCT_TASK = 4;
+    public static final int UNITS_ON_LOAD_TASK = 8;
+    private static final int MAX_CANDIDATE_PAIRS = 4000;
+
+    private final Planet planet;
+    private final UnitRegistry units;
+    private final HashMap<Integer, FlowField> taskFlowFields;
+
+    private long[] candidatePairs;
+    private int[] pairUnitIds;
+    private int[] pairTasks;
+
+    public TaskMatcher(Planet planet, UnitRegistry units) {
+        this.planet = planet;
+        this.units = units;
+        this.taskFlowFields = new HashMap<>();
+        this.candidatePairs = new long[MAX_CANDIDATE_PAIRS];
+        this.pairUnitIds = new int[MAX_CANDIDATE_PAIRS];
+        this.pairTasks = new int[MAX_CANDIDATE_PAIRS];
+    }
+
+    /**
+     * Checks if a task has all the units it needs, or is a construction task that no longer needs any
+     * @param globalTask The global task to check
+     * @return If the task does not need any more units
+     */
+    public static boolean isTaskStaffed(GlobalTask globalTask) {
+        if (globalTask.getState() == TaskState.CLOSED) {
+            return true;
+        }
+        if (globalTask.getCommand() == Command.LOAD_ROCKET) {
+            return globalTask.getUnitsOnTask().size() >= UNITS_ON_LOAD_TASK;
+        }
+        return globalTask.hasBuilt() || globalTask.getUnitsOnTask().size() >= WORKERS_ON_CONSTRUCT_TASK;
+    }
+
+    /**
+     * Method that will drop the cached flow field of a task once it no longer needs units
+     * @param globalTask The global task that was removed
+     */
+    public void releaseTask(GlobalTask globalTask) {
+        taskFlowFields.remove(globalTask.getTaskId());
+    }
+
+    /**
+     * Method that will assign the idle units on the planet to the given tasks. Construction tasks only take
+     * workers. Rocket loading tasks take one worker if they have no units yet and attackers for the rest, and an
+     * attacker takes the worker slot when no idle worker can reach the rocket.
+     * @param globalTasks The tasks that need units, each with a location already picked
+     */
+    public void matchTasks(ArrayList<GlobalTask> globalTasks) {
+        int taskCount = globalTasks.size();
+        if (taskCount == 0) {
+            return;
+        }
+
+        int[] workerSlots = new int[taskCount];
+        int[] attackerSlots = new int[taskCount];
+        int openWorkerSlots = 0;
+        int openAttackerSlots = 0;
+        for (int i = 0; i < taskCount; i++) {
+            GlobalTask globalTask = globalTasks.get(i);
+            int unitsOnTask = globalTask.getUnitsOnTask().size();
+
+            if (isTaskStaffed(globalTask)) {
+                continue;
+            }
+
+            if (globalTask.getCommand() == Command.LOAD_ROCKET) {
+                workerSlots[i] = unitsOnTask < 1 ? 1 : 0;
+                attackerSlots[i] = UNITS_ON_LOAD_TASK - Math.max(1, unitsOnTask);
+            } else {
+                workerSlots[i] = WORKERS_ON_CONSTRUCT_TASK - unitsOnTask;
+            }
+            openWorkerSlots += workerSlots[i];
+            openAttackerSlots += attackerSlots[i];
+        }
+
+        if (openWorkerSlots > 0) {
+            matchUnits(globalTasks, workerSlots, UnitGroup.WORKER);
+        }
+
+        // Otherwise a loading task without a worker could never fill its last slot and would stay pending forever
+        for (int i = 0; i < taskCount; i++) {
+            if (globalTasks.get(i).getCommand() == Command.LOAD_ROCKET && workerSlots[i] > 0) {
+                attackerSlots[i] += workerSlots[i];
+                openAttackerSlots += workerSlots[i];
+                workerSlots[i] = 0;
+            }
+        }
+        if (openAttackerSlots > 0) {
+            matchUnits(globalTasks, attackerSlots, UnitGroup.ATTACKER);
+        }
+    }
+
+    /**
+     * Helper method that will pair every idle unit in the map with every task that has slots for it, sort the
+     * pairs by walking distance, and assign them greedily
+     * @param globalTasks The tasks being matched
+     * @param slots The number of units of this kind each task still needs
+     * @param unitGroup The group of units to pick from
+     */
+    private void matchUnits(ArrayList<GlobalTask> globalTasks, int[] slots, UnitGroup unitGroup) {
+        int pairCount = 0;
+        for (int unitId = units.nextId(unitGroup, 0); unitId != -1; unitId = units.nextId(unitGroup, unitId + 1)) {
+            if (!RoundSnapshot.isOnMap(unitId) || !isIdle(units.get(unitGroup, unitId))) {
+                continue;
+            }
+
+            int unitIndex = MapGrid.toIndex(planet, RoundSnapshot.getX(unitId), RoundSnapshot.getY(unitId));
+            for (int i = 0; i < globalTasks.size() && pairCount < MAX_CANDIDATE_PAIRS; i++) {
+                if (slots[i] <= 0) {
+                    continue;
+                }
+
+                int moves = getFlowField(globalTasks.get(i)).getDistance(unitIndex);
+                if (moves != FlowField.UNREACHABLE) {
+                    candidatePairs[pairCount] = ((long)moves << 32) | pairCount;
+                    pairUnitIds[pairCount] = unitId;
+                    pairTasks[pairCount] = i;
+                    pairCount++;
+                }
+            }
+        }
+
+        Arrays.sort(candidatePairs, 0, pairCount);
+
+        HashSet<Integer> assignedUnits = new HashSet<>();
+        for (int i = 0; i < pairCount; i++) {
+            int pairIndex = (int)(candidatePairs[i] & 0xFFFFFFFFL);
+            int unitId = pairUnitIds[pairIndex];
+            int taskPosition = pairTasks[pairIndex];
+
+            if (assignedUnits.contains(unitId) || slots[taskPosition] <= 0) {
+                continue;
+            }
+
+            assignedUnits.add(unitId);
+            slots[taskPosition]--;
+
+            GlobalTask globalTask = globalTasks.get(taskPosition);
+            if (globalTask.getCommand() == Command.LOAD_ROCKET) {
+                globalTask.addUnitToList(unitId);
+                // System.out.println("Added unit " + unitId + " to task (load rocket) " + globalTask.getTaskId());
+            } else if (unitGroup == UnitGroup.WORKER) {
+                globalTask.addWorkerToList(unitId);
+                // System.out.println("Added worker " + unitId + " to task (construct) " + globalTask.getTaskId());
+            }
+        }
+    }
+
+    /**
+     * Gets the flow field to the location of a task, building it the first time the task is matched
+     * @param globalTask The global task
+     * @return The flow field to the task location
+     */
+    private FlowField getFlowField(GlobalTask globalTask) {
+        FlowField flowField = taskFlowFields.get(globalTask.getTaskId());
+        if (flowField == null) {
+            flowField = new FlowField(planet, MapGrid.toIndex(globalTask.getTaskLocation()));
+            taskFlowFields.put(globalTask.getTaskId(), flowField);
+        }
+        return flowField;
+    }
+
+    /**
+     * Checks if a unit is not currently working on a global task
+     * @param unit The unit to check
+     * @return If the unit can be given a global task
+     */
+    private static boolean isIdle(UnitInstance unit) {
+        return !unit.hasTasks() || unit.getCurrentTask().getTaskId() == -1;
+    }
+}
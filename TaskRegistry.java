@@ -0,0 +1,106 @@
+import bc.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * Registry of the global tasks that have a location on a planet. Keeps an index from packed cell to task so that
+ * checking if a location is already used by a task is O(1). Tasks are retired as soon as they are finished so the
+ * registry only ever holds the tasks that are still in progress.
+ */
+public class TaskRegistry {
+
+    private static final int NO_TASK = 0;
+
+    private final int[] taskAtCell;
+    private final HashMap<Integer, GlobalTask> activeTasks;
+
+    public TaskRegistry(Planet planet) {
+        this.taskAtCell = new int[MapGrid.getCellCount(planet)];
+        this.activeTasks = new HashMap<>();
+    }
+
+    /**
+     * Gets an active task by its id
+     * @param taskId The id of the global task
+     * @return The task or null if it has been retired. A retired task should be treated as completed
+     */
+    public GlobalTask getTask(int taskId) {
+        return activeTasks.get(taskId);
+    }
+
+    public boolean isRegistered(GlobalTask globalTask) {
+        return activeTasks.containsKey(globalTask.getTaskId());
+    }
+
+    public Collection<GlobalTask> getActiveTasks() {
+        return activeTasks.values();
+    }
+
+    /**
+     * Checks if a location is already used by an active task
+     * @param mapLocation The location to check
+     * @return If a task is using the location
+     */
+    public boolean isLocationTaken(MapLocation mapLocation) {
+        return taskAtCell[MapGrid.toIndex(mapLocation)] != NO_TASK;
+    }
+
+    /**
+     * Gets the active task at a location
+     * @param mapLocation The location of the task
+     * @return The task at the location or null if there is none
+     */
+    public GlobalTask getTaskAt(MapLocation mapLocation) {
+        int taskId = taskAtCell[MapGrid.toIndex(mapLocation)];
+        return taskId == NO_TASK ? null : activeTasks.get(taskId);
+    }
+
+    /**
+     * Method that will add a task to the registry at its location
+     * @param globalTask The global task, which must already have a location
+     * @return If the task was added. Fails if the location is already used by another task
+     */
+    public boolean register(GlobalTask globalTask) {
+        int index = MapGrid.toIndex(globalTask.getTaskLocation());
+        if (taskAtCell[index] != NO_TASK) {
+            return false;
+        }
+
+        taskAtCell[index] = globalTask.getTaskId();
+        activeTasks.put(globalTask.getTaskId(), globalTask);
+        return true;
+    }
+
+    /**
+     * Method that will close a task and remove it from the registry
+     * @param globalTask The global task to retire
+     */
+    public void retire(GlobalTask globalTask) {
+        globalTask.setState(TaskState.CLOSED);
+        if (activeTasks.remove(globalTask.getTaskId()) != null) {
+            int index = MapGrid.toIndex(globalTask.getTaskLocation());
+            if (taskAtCell[index] == globalTask.getTaskId()) {
+                taskAtCell[index] = NO_TASK;
+            }
+        }
+    }
+
+    /**
+     * Method that will retire every construction task whose structure has been built. Called once a round
+     */
+    public void retireCompletedTasks() {
+        ArrayList<GlobalTask> completedTasks = new ArrayList<>();
+        for (GlobalTask globalTask: activeTasks.values()) {
+            if (globalTask.getState() == TaskState.BUILT) {
+                completedTasks.add(globalTask);
+            }
+        }
+
+        for (GlobalTask globalTask: completedTasks) {
+            // System.out.println("Retiring task: " + globalTask.getTaskId());
+            retire(globalTask);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+/**
+ * States a global task moves through from when it is created until it is retired from the task registry
+ */
+public enum TaskState {
+
+    // Waiting for a location or for its first units
+    PENDING,
+
+    // Has units working on it
+    ASSIGNED,
+
+    // Construction tasks only
+    BLUEPRINTED,
+    BUILT,
+
+    // Retired from the task registry
+    CLOSED,
+}
@@ -0,0 +1,9 @@
+/**
+ * Groups the units of a planet are kept in by the unit registry
+ */
+public enum UnitGroup {
+    WORKER,
+    ATTACKER,
+    FACTORY,
+    ROCKET,
+}
@@ -1,5 +1,6 @@
 import bc.*;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Queue;
 
@@ -14,11 +15,11 @@ public abstract class UnitInstance {
     private UnitType unitType;
     private RobotTask emergencyTask;
 
-    public UnitInstance(int id) {
+    public UnitInstance(int id, UnitType unitType) {
         this.id = id;
-        taskQueue = new LinkedList<>();
-        unitType = Player.gc.unit(id).unitType();
-        emergencyTask = null;
+        this.taskQueue = new LinkedList<>();
+        this.unitType = unitType;
+        this.emergencyTask = null;
     }
 
     /**
@@ -32,14 +33,23 @@ public abstract class UnitInstance {
     }
 
     public int getVisionRange() {
-        return (int)(Player.gc.unit(this.getId()).visionRange());
+        return UnitStats.getVisionRange(this.getUnitType(), this.getId());
     }
 
     public boolean hasTasks() {
         return (!taskQueue.isEmpty());
     }
 
+    /**
+     * Gets the location of the unit from the round snapshot. Units that were not on the map when the snapshot
+     * was taken are read from the game controller once and added to it
+     * @return The current location of the unit
+     */
     public MapLocation getLocation() {
+        if (RoundSnapshot.isOnMap(id) || RoundSnapshot.refreshUnit(id)) {
+            return new MapLocation(Player.planet, RoundSnapshot.getX(id), RoundSnapshot.getY(id));
+        }
+
         return Player.gc.unit(this.getId()).location().mapLocation();
     }
 
@@ -59,6 +69,23 @@ public abstract class UnitInstance {
         taskQueue.poll();
     }
 
+    /**
+     * Method that will drop the queued steps of a global task once the unit is taken off it. The current step is
+     * left for the caller to finish or poll
+     * @param taskId The id of the global task
+     */
+    public void removeQueuedSteps(int taskId) {
+        Iterator<RobotTask> iterator = taskQueue.iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+        }
+        while (iterator.hasNext()) {
+            if (iterator.next().getTaskId() == taskId) {
+                iterator.remove();
+            }
+        }
+    }
+
     public RobotTask getEmergencyTask() {
         return emergencyTask;
     }
@@ -0,0 +1,15 @@
+import bc.*;
+
+/**
+ * Listener for the changes the unit lifecycle tracker finds between the snapshots of two rounds
+ */
+public interface UnitLifecycleListener {
+
+    void onUnitSpawned(int unitId, UnitType unitType);
+
+    void onUnitDied(int unitId, UnitType unitType);
+
+    void onUnitGarrisoned(int unitId, UnitType unitType);
+
+    void onUnitLaunched(int unitId, UnitType unitType);
+}
@@ -0,0 +1,106 @@
+import bc.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Compares the sorted unit ids of the round snapshot with the ids of the previous round in one linear pass and
+ * tells the listeners which units were spawned, died, were loaded into a structure or launched into space. Also
+ * keeps the exact number of friendly units of each type as of the start of the round.
+ */
+public class UnitLifecycleTracker {
+
+    private static final ArrayList<UnitLifecycleListener> listeners = new ArrayList<>();
+    private static final int[] unitTypeCounts = new int[UnitType.values().length];
+
+    private static int[] previousIds = new int[0];
+    private static int previousCount = 0;
+    private static int[] previousStates = new int[0];
+    private static UnitType[] previousTypes = new UnitType[0];
+
+    public static void addListener(UnitLifecycleListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Gets the number of friendly units of a type on this planet, including units in garrisons
+     * @param unitType The type of unit
+     * @return The number of units of the type at the start of the round
+     */
+    public static int getUnitCount(UnitType unitType) {
+        return unitTypeCounts[unitType.ordinal()];
+    }
+
+    /**
+     * Method that will compare the current round snapshot with the previous one and send the events. Must be
+     * called once a round right after the snapshot is taken
+     */
+    public static void update() {
+        int currentCount = RoundSnapshot.getUnitCount();
+        int previousPosition = 0;
+        int currentPosition = 0;
+
+        while (previousPosition < previousCount || currentPosition < currentCount) {
+            int previousId = previousPosition < previousCount ? previousIds[previousPosition] : Integer.MAX_VALUE;
+            int currentId = currentPosition < currentCount ? RoundSnapshot.getUnitId(currentPosition) : Integer.MAX_VALUE;
+
+            if (previousId < currentId) {
+                unitTypeCounts[previousTypes[previousId].ordinal()]--;
+                for (UnitLifecycleListener listener: listeners) {
+                    listener.onUnitDied(previousId, previousTypes[previousId]);
+                }
+                previousPosition++;
+
+            } else if (currentId < previousId) {
+                UnitType unitType = RoundSnapshot.getUnitType(currentId);
+                unitTypeCounts[unitType.ordinal()]++;
+                for (UnitLifecycleListener listener: listeners) {
+                    listener.onUnitSpawned(currentId, unitType);
+                }
+                currentPosition++;
+
+            } else {
+                int previousState = previousStates[currentId];
+                int currentState = RoundSnapshot.getState(currentId);
+                if (previousState != currentState) {
+                    UnitType unitType = RoundSnapshot.getUnitType(currentId);
+                    for (UnitLifecycleListener listener: listeners) {
+                        if (currentState == RoundSnapshot.IN_GARRISON && previousState == RoundSnapshot.ON_MAP) {
+                            listener.onUnitGarrisoned(currentId, unitType);
+                        } else if (currentState == RoundSnapshot.IN_SPACE) {
+                            listener.onUnitLaunched(currentId, unitType);
+                        }
+                    }
+                }
+                previousPosition++;
+                currentPosition++;
+            }
+        }
+
+        storeSnapshot(currentCount);
+    }
+
+    /**
+     * Helper method that will copy the ids, states and types of the current snapshot to compare against next round
+     * @param currentCount The number of units in the current snapshot
+     */
+    private static void storeSnapshot(int currentCount) {
+        if (previousIds.length < currentCount) {
+            previousIds = new int[currentCount * 2];
+        }
+
+        for (int i = 0; i < currentCount; i++) {
+            int unitId = RoundSnapshot.getUnitId(i);
+            if (unitId >= previousStates.length) {
+                int newLength = Math.max(unitId + 1, previousStates.length * 2);
+                previousStates = Arrays.copyOf(previousStates, newLength);
+                previousTypes = Arrays.copyOf(previousTypes, newLength);
+            }
+
+            previousIds[i] = unitId;
+            previousStates[unitId] = RoundSnapshot.getState(unitId);
+            previousTypes[unitId] = RoundSnapshot.getUnitType(unitId);
+        }
+        previousCount = currentCount;
+    }
+}
@@ -0,0 +1,171 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Registry of the friendly units of a planet. Unit instances are stored in an array indexed by unit id, since ids
+ * are small and bounded, and each group keeps a bitset of its members. Iterating a group walks its bitset so it
+ * visits units in id order, which is the order they were created in, without boxing any keys. Units created
+ * during a round are staged and only join their group at the end of the round, and units loaded into a
+ * structure are removed at the end of the round.
+ */
+public class UnitRegistry {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private UnitInstance[] units;
+    private final BitSet[] groupMembers;
+    private final BitSet[] stagedMembers;
+    private final int[] groupSizes;
+    private final int[] stagedSizes;
+    private final BitSet garrisonedUnits;
+
+    public UnitRegistry() {
+        int groupCount = UnitGroup.values().length;
+        this.units = new UnitInstance[INITIAL_CAPACITY];
+        this.groupMembers = new BitSet[groupCount];
+        this.stagedMembers = new BitSet[groupCount];
+        this.groupSizes = new int[groupCount];
+        this.stagedSizes = new int[groupCount];
+        this.garrisonedUnits = new BitSet();
+
+        for (int i = 0; i < groupCount; i++) {
+            groupMembers[i] = new BitSet();
+            stagedMembers[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Gets a unit if it is a member of the group
+     * @param unitGroup The group of the unit
+     * @param unitId The id of the unit
+     * @return The unit instance or null if the unit is not in the group
+     */
+    public UnitInstance get(UnitGroup unitGroup, int unitId) {
+        return contains(unitGroup, unitId) ? units[unitId] : null;
+    }
+
+    public Rocket getRocket(int unitId) {
+        return (Rocket)get(UnitGroup.ROCKET, unitId);
+    }
+
+    public boolean contains(UnitGroup unitGroup, int unitId) {
+        return groupMembers[unitGroup.ordinal()].get(unitId);
+    }
+
+    public int size(UnitGroup unitGroup) {
+        return groupSizes[unitGroup.ordinal()];
+    }
+
+    public int getStagedCount(UnitGroup unitGroup) {
+        return stagedSizes[unitGroup.ordinal()];
+    }
+
+    /**
+     * Gets the id of the next member of a group, used to iterate a group in creation order with
+     * for (int id = registry.nextId(group, 0); id != -1; id = registry.nextId(group, id + 1))
+     * @param unitGroup The group to iterate
+     * @param fromId The smallest id to return
+     * @return The id of the next member or -1 if there are none left
+     */
+    public int nextId(UnitGroup unitGroup, int fromId) {
+        return groupMembers[unitGroup.ordinal()].nextSetBit(fromId);
+    }
+
+    /**
+     * Method that will add a unit to a group immediately. If the unit was in another group it is moved
+     * @param unitGroup The group of the unit
+     * @param unit The unit instance
+     */
+    public void add(UnitGroup unitGroup, UnitInstance unit) {
+        int unitId = unit.getId();
+        ensureCapacity(unitId);
+        removeFromGroups(unitId);
+
+        units[unitId] = unit;
+        groupMembers[unitGroup.ordinal()].set(unitId);
+        groupSizes[unitGroup.ordinal()]++;
+    }
+
+    /**
+     * Method that will stage a unit created this round. It joins its group when the staged units are committed
+     * @param unitGroup The group of the unit
+     * @param unit The unit instance
+     */
+    public void stage(UnitGroup unitGroup, UnitInstance unit) {
+        int unitId = unit.getId();
+        ensureCapacity(unitId);
+
+        units[unitId] = unit;
+        if (!stagedMembers[unitGroup.ordinal()].get(unitId)) {
+            stagedMembers[unitGroup.ordinal()].set(unitId);
+            stagedSizes[unitGroup.ordinal()]++;
+        }
+    }
+
+    /**
+     * Method that will remember that a unit was loaded into a structure so it is removed at the end of the round
+     * @param unitId The id of the unit
+     */
+    public void markGarrisoned(int unitId) {
+        garrisonedUnits.set(unitId);
+    }
+
+    /**
+     * Method that will remove a unit from every group
+     * @param unitId The id of the unit
+     * @return The unit instance that was removed or null if the unit was not in any group
+     */
+    public UnitInstance remove(int unitId) {
+        if (unitId >= units.length || !removeFromGroups(unitId)) {
+            return null;
+        }
+
+        UnitInstance unit = units[unitId];
+        units[unitId] = null;
+        return unit;
+    }
+
+    /**
+     * Method that will remove the units loaded into structures this round and add the units staged this round to
+     * their groups. Called at the end of every round
+     */
+    public void endRound() {
+        for (int unitId = garrisonedUnits.nextSetBit(0); unitId != -1; unitId = garrisonedUnits.nextSetBit(unitId + 1)) {
+            remove(unitId);
+        }
+        garrisonedUnits.clear();
+
+        for (UnitGroup unitGroup: UnitGroup.values()) {
+            BitSet staged = stagedMembers[unitGroup.ordinal()];
+            for (int unitId = staged.nextSetBit(0); unitId != -1; unitId = staged.nextSetBit(unitId + 1)) {
+                add(unitGroup, units[unitId]);
+                // System.out.println("Added unit: " + unitId + " To the " + unitGroup + " group");
+            }
+            staged.clear();
+            stagedSizes[unitGroup.ordinal()] = 0;
+        }
+    }
+
+    /**
+     * Helper method that will clear a unit from the bitsets of all the groups
+     * @param unitId The id of the unit
+     * @return If the unit was in a group
+     */
+    private boolean removeFromGroups(int unitId) {
+        boolean wasMember = false;
+        for (int i = 0; i < groupMembers.length; i++) {
+            if (groupMembers[i].get(unitId)) {
+                groupMembers[i].clear(unitId);
+                groupSizes[i]--;
+                wasMember = true;
+            }
+        }
+        return wasMember;
+    }
+
+    private void ensureCapacity(int unitId) {
+        if (unitId >= units.length) {
+            units = Arrays.copyOf(units, Math.max(unitId + 1, units.length * 2));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import bc.*;
+
+import java.util.Arrays;
+
+/**
+ * Cached table of unit stats keyed by unit type and research level. The ranges of a unit type only change when
+ * a research upgrade completes, so the values are read once from a live unit and then served from static arrays
+ */
+public class UnitStats {
+
+    private static final int TYPE_COUNT = UnitType.values().length;
+    private static final int MAX_RESEARCH_LEVEL = 4;
+    private static final int UNKNOWN = -1;
+
+    private static final int[][] attackRangeTable = createTable();
+    private static final int[][] visionRangeTable = createTable();
+    private static final int[] harvestAmountTable = createRow(MAX_RESEARCH_LEVEL + 1);
+
+    private static final int[] researchLevels = new int[TYPE_COUNT];
+    private static final int[] currentAttackRanges = createRow();
+    private static final int[] currentVisionRanges = createRow();
+
+    private static long nextRefreshRound = 0;
+
+    /**
+     * Method that will check if a research upgrade may have finished since the last check. The research info is
+     * only requested from the game controller on the round the head of the research queue is expected to complete
+     */
+    public static void updateResearchLevels() {
+        long round = Player.gc.round();
+        if (round < nextRefreshRound) {
+            return;
+        }
+
+        ResearchInfo researchInfo = Player.gc.researchInfo();
+        for (UnitType unitType: UnitType.values()) {
+            int typeIndex = unitType.ordinal();
+            int level = Math.min((int)(researchInfo.getLevel(unitType)), MAX_RESEARCH_LEVEL);
+
+            if (level != researchLevels[typeIndex]) {
+                researchLevels[typeIndex] = level;
+                currentAttackRanges[typeIndex] = attackRangeTable[typeIndex][level];
+                currentVisionRanges[typeIndex] = visionRangeTable[typeIndex][level];
+            }
+        }
+
+        // If nothing is queued the levels cannot change until the research queue is modified again
+        if (researchInfo.queue().size() == 0) {
+            nextRefreshRound = Long.MAX_VALUE;
+        } else {
+            nextRefreshRound = round + Math.max(1, researchInfo.roundsLeft());
+        }
+    }
+
+    /**
+     * Forces the research levels to be checked next round. Must be called whenever the research queue is changed
+     */
+    public static void invalidate() {
+        nextRefreshRound = 0;
+    }
+
+    /**
+     * Gets the research level of the given unit type as of the last refresh
+     * @param unitType The type of the unit
+     * @return The research level of the unit type
+     */
+    public static int getResearchLevel(UnitType unitType) {
+        return researchLevels[unitType.ordinal()];
+    }
+
+    /**
+     * Gets the attack range of a unit type at its current research level. If the range has not been seen at this
+     * level yet, it will be read from the given unit and stored in the table
+     * @param unitType The type of the unit
+     * @param unitId The id of a unit of that type to read the stat from if it is not cached
+     * @return The attack range of the unit type
+     */
+    public static int getAttackRange(UnitType unitType, int unitId) {
+        int typeIndex = unitType.ordinal();
+        if (currentAttackRanges[typeIndex] == UNKNOWN) {
+            loadStats(typeIndex, unitId);
+        }
+
+        return currentAttackRanges[typeIndex];
+    }
+
+    /**
+     * Gets the vision range of a unit type at its current research level. If the range has not been seen at this
+     * level yet, it will be read from the given unit and stored in the table
+     * @param unitType The type of the unit
+     * @param unitId The id of a unit of that type to read the stat from if it is not cached
+     * @return The vision range of the unit type
+     */
+    public static int getVisionRange(UnitType unitType, int unitId) {
+        int typeIndex = unitType.ordinal();
+        if (currentVisionRanges[typeIndex] == UNKNOWN) {
+            loadStats(typeIndex, unitId);
+        }
+
+        return currentVisionRanges[typeIndex];
+    }
+
+    /**
+     * Gets the amount of karbonite a worker harvests per action at the current worker research level
+     * @param workerId The id of a worker to read the stat from if it is not cached
+     * @return The harvest amount of a worker
+     */
+    public static int getHarvestAmount(int workerId) {
+        int level = researchLevels[UnitType.Worker.ordinal()];
+        if (harvestAmountTable[level] == UNKNOWN) {
+            harvestAmountTable[level] = (int)(Player.gc.unit(workerId).workerHarvestAmount());
+        }
+
+        return harvestAmountTable[level];
+    }
+
+    /**
+     * Helper method that will read the stats of a unit from the game controller and store them in the tables
+     * for the current research level of its type
+     * @param typeIndex The index of the unit type
+     * @param unitId The id of the unit to read from
+     */
+    private static void loadStats(int typeIndex, int unitId) {
+        Unit unit = Player.gc.unit(unitId);
+        int level = researchLevels[typeIndex];
+
+        // Workers and structures do not have an attack range and the game controller will throw if it is requested
+        int attackRange = 0;
+        if (typeIndex != UnitType.Worker.ordinal() && typeIndex != UnitType.Factory.ordinal() &&
+                typeIndex != UnitType.Rocket.ordinal()) {
+            attackRange = (int)(unit.attackRange());
+        }
+        int visionRange = (int)(unit.visionRange());
+
+        attackRangeTable[typeIndex][level] = attackRange;
+        visionRangeTable[typeIndex][level] = visionRange;
+        currentAttackRanges[typeIndex] = attackRange;
+        currentVisionRanges[typeIndex] = visionRange;
+    }
+
+    private static int[][] createTable() {
+        int[][] table = new int[TYPE_COUNT][MAX_RESEARCH_LEVEL + 1];
+        for (int[] row: table) {
+            Arrays.fill(row, UNKNOWN);
+        }
+        return table;
+    }
+
+    private static int[] createRow() {
+        return createRow(TYPE_COUNT);
+    }
+
+    private static int[] createRow(int length) {
+        int[] row = new int[length];
+        Arrays.fill(row, UNKNOWN);
+        return row;
+    }
+}
@@ -4,16 +4,20 @@ import java.util.*;
 
 public class Worker extends Robot {
 
-    // TODO: create a method that will analyze the map and determine the number of workers needed
-    private static final int NUMBER_OF_WORKERS_NEEDED = 4;
+    private static final int MAX_HARVEST_ATTEMPTS = 2;
 
     private MapLocation spawnLocation;
 
     public Worker(int id) {
-        super(id);
+        super(id, UnitType.Worker);
         spawnLocation = Player.gc.unit(id).location().mapLocation();
     }
 
+    public Worker(int id, MapLocation spawnLocation) {
+        super(id, UnitType.Worker);
+        this.spawnLocation = spawnLocation;
+    }
+
     @Override
     public void run() {
 
@@ -44,8 +48,9 @@ public class Worker extends Robot {
     private void checkTaskStatus() {
         if (this.getCurrentTask().getTaskId() != -1) {
 
-            GlobalTask currentGlobalTask = Earth.earthTaskMap.get(this.getCurrentTask().getTaskId());
-            if (currentGlobalTask.checkGlobalTaskStatus(this.getCurrentTask().getCommand())) {
+            // A task that is no longer in the registry has been retired and is treated as completed
+            GlobalTask currentGlobalTask = Player.getController().getTaskRegistry().getTask(this.getCurrentTask().getTaskId());
+            if (currentGlobalTask == null || currentGlobalTask.checkGlobalTaskStatus(this.getCurrentTask().getCommand())) {
                 // System.out.println("Worker: " + this.getId() + " popped task " + this.getCurrentTask().getCommand());
                 this.pollCurrentTask();
 
@@ -112,8 +117,7 @@ public class Worker extends Robot {
             case BLUEPRINT_ROCKET:
                 return blueprintStructure(commandLocation, UnitType.Rocket);
             case STALL:
-                this.requestUnitToLoad(commandLocation);
-                return false;
+                return waitForLoading(robotTask);
             default:
                 // System.out.println("Critical error occurred in Worker: " + this.getId());
                 return true;
@@ -124,16 +128,19 @@ public class Worker extends Robot {
      * Helper method that will control what the robot does when it has no current tasks
      */
     private void executeIdleActions() {
-        MapLocation newMoveLocation = getNearestKarboniteLocation();
 
-        if (newMoveLocation != null) {
-            this.addTaskToQueue(new RobotTask(-1, Command.WANDER, newMoveLocation));
-            // System.out.println("Worker: " + this.getId() + " Setting task to wander and mine");
-
-        } else {
-            wanderWithinRadius(100);
-            // System.out.println("Worker: " + this.getId() + " Wandering!");
+        // The worker is mining a deposit reserved for it by the mining planner. Mining workers replicate when the
+        // economy model wants more workers since the clone can start on the same deposits right away
+        if (getMiningPlanner().hasReservation(this.getId())) {
+            if (Player.planet == Planet.Earth && EconomyModel.shouldReplicate()) {
+                cloneWorker(this.getLocation());
+            }
+            return;
         }
+
+        // The planner could not give the worker a deposit so every deposit near it is already fully staffed
+        wanderWithinRadius(100);
+        // System.out.println("Worker: " + this.getId() + " Wandering!");
     }
 
     /**
@@ -158,7 +165,7 @@ public class Worker extends Robot {
                     int clonedWorkerId = Player.senseUnitAtLocation(newLocation).id();
                     UnitInstance newWorker = new Worker(clonedWorkerId);
 
-                    Earth.earthStagingWorkerMap.put(clonedWorkerId, newWorker);
+                    Player.getController().getUnits().stage(UnitGroup.WORKER, newWorker);
 
                     // System.out.println("Worker: " + this.getId() + " Cloned worker!");
                     // System.out.println("New worker has ID of: " + clonedWorkerId);
@@ -188,14 +195,17 @@ public class Worker extends Robot {
 
             if (structureType == UnitType.Factory) {
                 UnitInstance newStructure = new Factory(structureId, false);
-                Earth.earthFactoryMap.put(structureId, newStructure);
+                Player.getController().getUnits().add(UnitGroup.FACTORY, newStructure);
             } else {
                 Rocket newStructure = new Rocket(structureId, false);
-                Earth.earthRocketMap.put(structureId, newStructure);
+                Player.getController().getUnits().add(UnitGroup.ROCKET, newStructure);
             }
 
-            // Set the global task variable hasBlueprinted to true
-            Earth.earthTaskMap.get(this.getCurrentTask().getTaskId()).structureHasBeenBlueprinted();
+            // Set the global task state to blueprinted
+            GlobalTask globalTask = Player.getController().getTaskRegistry().getTask(this.getCurrentTask().getTaskId());
+            if (globalTask != null) {
+                globalTask.structureHasBeenBlueprinted();
+            }
 
             // System.out.println("Worker: " + this.getId() + " Blueprinted structure at " + Player.locationToString(commandLocation));
             return true;
@@ -215,7 +225,14 @@ public class Worker extends Robot {
             structureId = Player.senseUnitAtLocation(commandLocation).id();
         } else {
 
-            // If for some reason the factory at the given location disappeared, return true to pop the task
+            // If the blueprint at the given location was destroyed, close its task so the location is freed and the
+            // other workers on it stop, then return true to pop the task
+            TaskRegistry taskRegistry = Player.getController().getTaskRegistry();
+            GlobalTask globalTask = taskRegistry.getTask(this.getCurrentTask().getTaskId());
+            if (globalTask != null && globalTask.hasBlueprinted()) {
+                // System.out.println("Worker: " + this.getId() + " found the blueprint of task " + globalTask.getTaskId() + " destroyed");
+                taskRegistry.retire(globalTask);
+            }
             return true;
         }
 
@@ -225,7 +242,7 @@ public class Worker extends Robot {
 
             // Check if it can clone here because we know it has no path when it is building and while building
             // Is when you need another worker the most
-            if (Player.gc.karbonite() > 60 && Earth.earthWorkerMap.size() < NUMBER_OF_WORKERS_NEEDED) {
+            if (EconomyModel.shouldReplicate()) {
                 executeTask(new RobotTask(-1, Command.CLONE, commandLocation));
             }
 
@@ -234,14 +251,17 @@ public class Worker extends Robot {
                 UnitType unitType = Player.gc.unit(structureId).unitType();
                 if (unitType == UnitType.Factory) {
                     UnitInstance builtFactory = new Factory(structureId, true);
-                    Earth.earthFactoryMap.put(structureId, builtFactory);
+                    Player.getController().getUnits().add(UnitGroup.FACTORY, builtFactory);
                 } else {
                     Rocket builtRocket = new Rocket(structureId, true);
-                    Earth.earthFactoryMap.put(structureId, builtRocket);
+                    Player.getController().getUnits().add(UnitGroup.ROCKET, builtRocket);
                 }
 
-                // Set the global task variable hasBlueprinted to true
-                Earth.earthTaskMap.get(this.getCurrentTask().getTaskId()).structureHasBeenBuilt();
+                // Set the global task state to built so it is retired next round
+                GlobalTask globalTask = Player.getController().getTaskRegistry().getTask(this.getCurrentTask().getTaskId());
+                if (globalTask != null) {
+                    globalTask.structureHasBeenBuilt();
+                }
 
                 // System.out.println("Worker: " + this.getId() + " Built structure");
                 return true;
@@ -252,68 +272,60 @@ public class Worker extends Robot {
 
     /**
      * Method that will check if a worker can mine karbonite. If it has not performed an action this turn and
-     * there is a karbonite pocket in adjacent squares, it will mine it
+     * there is a karbonite pocket in adjacent squares, it will mine it. Adjacent deposits are read from the
+     * karbonite map using the worker's location from the round snapshot, so only the deposits that are known to
+     * have karbonite are checked with the game controller
      */
     private void mineKarbonite() {
-        for (int i = 0; i < 8 + 1; i++) {
+        int workerId = this.getId();
+        if (!RoundSnapshot.isOnMap(workerId)) {
+            return;
+        }
+
+        KarboniteMap karboniteMap = getKarboniteMap();
+        Planet planet = karboniteMap.getPlanet();
+        int workerX = RoundSnapshot.getX(workerId);
+        int workerY = RoundSnapshot.getY(workerId);
+
+        int attempts = 0;
+        for (int i = 0; i < 8 + 1 && attempts < MAX_HARVEST_ATTEMPTS; i++) {
+            int depositX = workerX + MapGrid.DX[i];
+            int depositY = workerY + MapGrid.DY[i];
+            if (!MapGrid.isOnMap(planet, depositX, depositY)) {
+                continue;
+            }
+
+            int depositIndex = MapGrid.toIndex(planet, depositX, depositY);
+            if (karboniteMap.getKarbonite(depositIndex) <= 0) {
+                continue;
+            }
+
+            // If the worker cannot harvest a known deposit it has most likely already acted this round
             Direction direction = Direction.swigToEnum(i);
-            MapLocation newLocation = Player.gc.unit(this.getId()).location().mapLocation().add(direction);
-            if (Player.gc.canHarvest(this.getId(), direction) && Player.karboniteAt(newLocation) > 0) {
-                Player.gc.harvest(this.getId(), direction);
+            attempts++;
+            if (Player.gc.canHarvest(workerId, direction)) {
+                Player.gc.harvest(workerId, direction);
+                karboniteMap.recordHarvest(depositIndex, UnitStats.getHarvestAmount(workerId));
                 // System.out.println("Worker: " + this.getId() + " mined karbonite");
-                break;
+                return;
             }
         }
     }
 
     /**
-     * Method that will get the nearest location of a karbonite deposit. POTENTIAL MEM LEAK IF RUNS TOO MUCH
-     * @return The MapLocation of the nearest karbonite deposit. Null if there is no karbonite on the map
+     * Gets the karbonite map of the planet the worker is on
+     * @return The karbonite map of the worker's planet
      */
-    // TODO: Change this so that is senses all locations within a radius of x. If is finds any within the radius
-    // TODO: Of the unit, THEN start the search algorithm.
-    private MapLocation getNearestKarboniteLocation() {
-
-        MapLocation destinationLocation = null;
-
-        MapLocation myLocation = this.getLocation();
-
-        Queue<MapLocation> frontier = new LinkedList<>();
-        frontier.add(myLocation);
-
-        HashMap<String, MapLocation> checkedLocations = new HashMap<>();
-        checkedLocations.put(Player.locationToString(myLocation), myLocation);
-
-        int counter = 0;
-        while (!frontier.isEmpty() && counter < 100) {
-
-            // Get next direction to check around. Will put in the checked location a pair with the key as the
-            // Next location with the value as the current location.
-            MapLocation currentLocation = frontier.poll();
-            if (Player.gc.canSenseLocation(currentLocation) && Player.gc.karboniteAt(currentLocation) > 0) {
-                destinationLocation = currentLocation;
-                //checkedLocations.put(Player.locationToString(destinationLocation), currentLocation);
-                frontier.clear();
-                break;
-            }
-
-            // shuffle makes stay more in a general area rather than constantly gravitate northward then
-            ArrayList<Direction> moveDirections = Player.getMoveDirections();
-            Collections.shuffle(moveDirections);
-            // Check if locations around frontier location have already been added to came from and if they are empty
-            for (Direction nextDirection: moveDirections) {
-                MapLocation nextLocation = currentLocation.add(nextDirection);
-
-                if (Player.gc.canSenseLocation(nextLocation) && Player.isLocationEmpty(nextLocation) &&
-                        !checkedLocations.containsKey(Player.locationToString(nextLocation))) {
-                    frontier.add(nextLocation);
-                    checkedLocations.put(Player.locationToString(nextLocation), currentLocation);
-                }
-            }
-            counter++;
-        }
+    private KarboniteMap getKarboniteMap() {
+        return Player.getController().getKarboniteMap();
+    }
 
-        return destinationLocation;
+    /**
+     * Gets the mining planner of the planet the worker is on
+     * @return The mining planner of the worker's planet
+     */
+    private MiningPlanner getMiningPlanner() {
+        return Player.getController().getMiningPlanner();
     }
 
     /**
@@ -0,0 +1,73 @@
+/**
+ * Keeps the sum of the coordinates of all the workers on the map so the centroid of the worker cluster is known
+ * without comparing every pair of workers. Locations are read from the round snapshot.
+ */
+public class WorkerCluster {
+
+    private static UnitRegistry unitRegistry = new UnitRegistry();
+    private static long sumX = 0;
+    private static long sumY = 0;
+    private static int workerCount = 0;
+    private static int bestWorkerId = -1;
+    private static boolean isBestWorkerDirty = true;
+
+    /**
+     * Method that will rebuild the coordinate sums from the workers in the given registry. Called once a round
+     * after dead units have been removed
+     * @param units The unit registry of this planet
+     */
+    public static void update(UnitRegistry units) {
+        unitRegistry = units;
+        sumX = 0;
+        sumY = 0;
+        workerCount = 0;
+
+        for (int workerId = units.nextId(UnitGroup.WORKER, 0); workerId != -1; workerId = units.nextId(UnitGroup.WORKER, workerId + 1)) {
+            if (RoundSnapshot.isOnMap(workerId)) {
+                sumX += RoundSnapshot.getX(workerId);
+                sumY += RoundSnapshot.getY(workerId);
+                workerCount++;
+            }
+        }
+
+        isBestWorkerDirty = true;
+    }
+
+    public static int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * Finds id of the worker closest to the centroid of all the workers. Computed at most once per round
+     * @return The id of the worker closest to the centroid or -1 if there are no workers on the map
+     */
+    public static int getBestWorkerId() {
+        if (!isBestWorkerDirty) {
+            return bestWorkerId;
+        }
+
+        bestWorkerId = -1;
+        if (workerCount > 0) {
+
+            // Compare scaled coordinates so the centroid does not need to be rounded
+            long smallestDistance = Long.MAX_VALUE;
+            for (int workerId = unitRegistry.nextId(UnitGroup.WORKER, 0); workerId != -1;
+                 workerId = unitRegistry.nextId(UnitGroup.WORKER, workerId + 1)) {
+                if (!RoundSnapshot.isOnMap(workerId)) {
+                    continue;
+                }
+
+                long dx = RoundSnapshot.getX(workerId) * (long)workerCount - sumX;
+                long dy = RoundSnapshot.getY(workerId) * (long)workerCount - sumY;
+                long distance = dx * dx + dy * dy;
+                if (distance < smallestDistance) {
+                    smallestDistance = distance;
+                    bestWorkerId = workerId;
+                }
+            }
+        }
+
+        isBestWorkerDirty = false;
+        return bestWorkerId;
+    }
+}